@@ -0,0 +1,57 @@
+package com.cms.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-process caches for content reads. Each cache is sized, expired and
+ * optionally refreshed early from {@code cms.cache.<name>.*}; evictions are
+ * deferred to commit so a concurrent reader cannot repopulate an entry with
+ * pre-update data.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String ARTICLES = "articles";
+    public static final String VIDEOS = "videos";
+    public static final String PODCASTS = "podcasts";
+    public static final String COMMENTS = "comments";
+
+    @Autowired
+    private Environment environment;
+
+    @Bean
+    public CacheManager cacheManager() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                buildCache(ARTICLES),
+                buildCache(VIDEOS),
+                buildCache(PODCASTS),
+                buildCache(COMMENTS)
+        ));
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    private CaffeineCache buildCache(String name) {
+        long maximumSize = environment.getProperty("cms.cache." + name + ".maximum-size", Long.class, 10000L);
+        long ttl = environment.getProperty("cms.cache." + name + ".ttl", Long.class, 600000L);
+        long refreshAfter = environment.getProperty("cms.cache." + name + ".refresh-after", Long.class, 0L);
+        return new EarlyRefreshCaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build(), Duration.ofMillis(refreshAfter));
+    }
+}
@@ -0,0 +1,64 @@
+package com.cms.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caffeine cache whose synchronized loads are coalesced per key and which can
+ * reload an entry shortly before it expires. The first caller to see an entry
+ * older than {@code refreshAfter} reloads it while every other caller keeps
+ * getting the current value, so a hot key never expires into a stampede.
+ */
+public class EarlyRefreshCaffeineCache extends CaffeineCache {
+    private final Cache<Object, Object> cache;
+    private final Duration refreshAfter;
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    public EarlyRefreshCaffeineCache(String name, Cache<Object, Object> cache, Duration refreshAfter) {
+        super(name, cache, false);
+        this.cache = cache;
+        this.refreshAfter = refreshAfter;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (isDueForRefresh(key) && refreshing.add(key)) {
+            try {
+                Object current = cache.getIfPresent(key);
+                T value = loadValue(key, valueLoader);
+                // Skip the write if the entry was evicted or replaced while loading,
+                // so a refresh never resurrects data invalidated by a concurrent update.
+                if (current != null) {
+                    cache.asMap().replace(key, current, toStoreValue(value));
+                }
+                return value;
+            } finally {
+                refreshing.remove(key);
+            }
+        }
+        return super.get(key, valueLoader);
+    }
+
+    private boolean isDueForRefresh(Object key) {
+        if (refreshAfter == null || refreshAfter.isZero()) {
+            return false;
+        }
+        return cache.policy().expireAfterWrite()
+                .flatMap(expiration -> expiration.ageOf(key))
+                .map(age -> age.compareTo(refreshAfter) >= 0)
+                .orElse(false);
+    }
+
+    private <T> T loadValue(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+}
@@ -1,16 +1,26 @@
 package com.cms.controller;
 
 import com.cms.dto.ArticleDto;
+import com.cms.dto.CursorPageDto;
+import com.cms.dto.ImportDto;
+import com.cms.repository.projection.ContentVersion;
 import com.cms.service.ArticleService;
+import com.cms.util.ConditionalRequestUtil;
+import com.cms.util.NdjsonWriter;
 import com.cms.util.SecurityUtil;
-import jakarta.servlet.http.HttpServletRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/articles")
@@ -21,14 +31,16 @@ public class ArticleController {
     @Autowired
     private SecurityUtil securityUtil;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     public ResponseEntity<ArticleDto.ArticleResponseDto> create(
-            @Valid @RequestBody ArticleDto.ArticleRequestDto requestDto,
-            HttpServletRequest request) {
+            @Valid @RequestBody ArticleDto.ArticleRequestDto requestDto) {
         if (!securityUtil.isAdmin()) {
             throw new com.cms.exception.BadRequestException("Only ADMIN users can create articles");
         }
-        Long authorId = securityUtil.getCurrentUserId(request);
+        Long authorId = securityUtil.getCurrentUserId();
         if (authorId == null) {
             throw new com.cms.exception.BadRequestException("User not authenticated");
         }
@@ -37,14 +49,59 @@ public class ArticleController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ArticleDto.ArticleResponseDto> getById(@PathVariable Long id) {
+    public ResponseEntity<ArticleDto.ArticleResponseDto> getById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequestUtil.isConditional(request)) {
+            ContentVersion version = articleService.getVersion(id);
+            String etag = ConditionalRequestUtil.etag(version.version());
+            if (ConditionalRequestUtil.isNotModified(request, etag, version.updatedAt())) {
+                return ConditionalRequestUtil.notModified(etag, version.updatedAt());
+            }
+        }
         ArticleDto.ArticleResponseDto response = articleService.getById(id);
-        return ResponseEntity.ok(response);
+        return ConditionalRequestUtil.ok(response, ConditionalRequestUtil.etag(response.getVersion()),
+                response.getUpdatedAt());
     }
 
     @GetMapping
-    public ResponseEntity<List<ArticleDto.ArticleResponseDto>> getAll() {
-        List<ArticleDto.ArticleResponseDto> response = articleService.getAll();
+    public ResponseEntity<CursorPageDto<ArticleDto.ArticleSummaryDto>> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        CursorPageDto<ArticleDto.ArticleSummaryDto> response = articleService.getPage(cursor, limit);
+        String etag = ConditionalRequestUtil.pageEtag(response, item -> item.getId() + ":" + item.getVersion());
+        return ConditionalRequestUtil.respond(request, response, etag, null);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageDto<ArticleDto.ArticleSearchResultDto>> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(articleService.search(query, cursor, limit));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince) {
+        if (!securityUtil.isAdmin()) {
+            throw new com.cms.exception.BadRequestException("Only ADMIN users can export articles");
+        }
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            articleService.export(updatedSince, writer::write);
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportDto.ImportResultDto> importNdjson(
+            InputStream body,
+            @RequestParam(required = false) Integer chunkSize) {
+        if (!securityUtil.isAdmin()) {
+            throw new com.cms.exception.BadRequestException("Only ADMIN users can import articles");
+        }
+        ImportDto.ImportResultDto response = articleService.importNdjson(body, chunkSize, securityUtil.getCurrentUserId());
         return ResponseEntity.ok(response);
     }
 
@@ -59,6 +116,22 @@ public class ArticleController {
         return ResponseEntity.ok(response);
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<ArticleDto.ArticleResponseDto> patch(
+            @PathVariable Long id,
+            @Valid @RequestBody ArticleDto.ArticlePatchDto patchDto,
+            WebRequest request) {
+        if (!securityUtil.isAdmin()) {
+            throw new com.cms.exception.BadRequestException("Only ADMIN users can update articles");
+        }
+        if (ConditionalRequestUtil.prefersMinimalReturn(request)) {
+            articleService.patchWithoutReading(id, patchDto);
+            return ResponseEntity.noContent().build();
+        }
+        ArticleDto.ArticleResponseDto response = articleService.patch(id, patchDto);
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         if (!securityUtil.isAdmin()) {
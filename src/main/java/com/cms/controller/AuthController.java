@@ -26,5 +26,11 @@ public class AuthController {
         AuthResponseDto response = userService.login(loginDto);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponseDto> refresh(@Valid @RequestBody UserDto.RefreshTokenRequestDto refreshDto) {
+        AuthResponseDto response = userService.refresh(refreshDto);
+        return ResponseEntity.ok(response);
+    }
 }
 
@@ -1,14 +1,22 @@
 package com.cms.controller;
 
 import com.cms.dto.CommentDto;
+import com.cms.dto.CursorPageDto;
+import com.cms.model.document.Comment;
+import com.cms.service.CommentCounterService;
 import com.cms.service.CommentService;
+import com.cms.service.CommentStreamBroadcaster;
+import com.cms.util.ConditionalRequestUtil;
 import com.cms.util.SecurityUtil;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -18,13 +26,18 @@ public class CommentController {
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private CommentCounterService commentCounterService;
+
+    @Autowired
+    private CommentStreamBroadcaster commentStreamBroadcaster;
+
     @Autowired
     private SecurityUtil securityUtil;
 
     @PostMapping
     public ResponseEntity<CommentDto.CommentResponseDto> create(
-            @Valid @RequestBody CommentDto.CommentRequestDto requestDto,
-            HttpServletRequest request) {
+            @Valid @RequestBody CommentDto.CommentRequestDto requestDto) {
         String author = securityUtil.getCurrentUsername();
         if (author == null) {
             throw new com.cms.exception.BadRequestException("User not authenticated");
@@ -34,17 +47,62 @@ public class CommentController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CommentDto.CommentResponseDto> getById(@PathVariable String id) {
+    public ResponseEntity<CommentDto.CommentResponseDto> getById(@PathVariable String id, WebRequest request) {
         CommentDto.CommentResponseDto response = commentService.getById(id);
-        return ResponseEntity.ok(response);
+        // No Last-Modified: deleting a reply changes the thread without raising
+        // any updatedAt, so only the ETag can tell the client it changed.
+        return ConditionalRequestUtil.respond(request, response,
+                ConditionalRequestUtil.etag(versionOf(response)), null);
     }
 
     @GetMapping
-    public ResponseEntity<List<CommentDto.CommentResponseDto>> getByContent(
+    public ResponseEntity<CursorPageDto<CommentDto.CommentResponseDto>> getByContent(
+            @RequestParam Long contentId,
+            @RequestParam String contentType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        CursorPageDto<CommentDto.CommentResponseDto> response =
+                commentService.getPage(contentId, Comment.normalizeContentType(contentType), cursor, limit);
+        String etag = ConditionalRequestUtil.pageEtag(response, this::versionOf);
+        return ConditionalRequestUtil.respond(request, response, etag, null);
+    }
+
+    @GetMapping("/counts")
+    public ResponseEntity<List<CommentDto.CommentCountDto>> getCounts(
+            @RequestParam String contentType,
+            @RequestParam List<Long> contentIds) {
+        return ResponseEntity.ok(
+                commentCounterService.getCounts(Comment.normalizeContentType(contentType), contentIds));
+    }
+
+    /**
+     * Live comment changes for one content item as Server-Sent Events:
+     * {@code comment-created}, {@code comment-updated}, {@code comment-deleted},
+     * and {@code refresh} when the page should be reloaded.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(
             @RequestParam Long contentId,
             @RequestParam String contentType) {
-        List<CommentDto.CommentResponseDto> response = commentService.getByContent(contentId, contentType);
-        return ResponseEntity.ok(response);
+        SseEmitter emitter = commentStreamBroadcaster.subscribe(
+                Comment.normalizeContentType(contentType), contentId);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                // Stops reverse proxies from buffering the stream.
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    @GetMapping("/{id}/replies")
+    public ResponseEntity<CursorPageDto<CommentDto.CommentResponseDto>> getReplies(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        CursorPageDto<CommentDto.CommentResponseDto> response = commentService.getReplies(id, cursor, limit);
+        String etag = ConditionalRequestUtil.pageEtag(response, this::versionOf);
+        return ConditionalRequestUtil.respond(request, response, etag, null);
     }
 
     @PutMapping("/{id}")
@@ -60,5 +118,16 @@ public class CommentController {
         commentService.delete(id);
         return ResponseEntity.noContent().build();
     }
-}
 
+    // Comments carry no version column, so validators cover the comment and its replies.
+    private String versionOf(CommentDto.CommentResponseDto comment) {
+        StringBuilder version = new StringBuilder().append(comment.getId()).append(':').append(comment.getUpdatedAt());
+        if (comment.getReplyCount() != null) {
+            version.append('#').append(comment.getReplyCount());
+        }
+        if (comment.getReplies() != null) {
+            comment.getReplies().forEach(reply -> version.append('[').append(versionOf(reply)).append(']'));
+        }
+        return version.toString();
+    }
+}
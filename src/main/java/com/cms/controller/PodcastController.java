@@ -1,15 +1,26 @@
 package com.cms.controller;
 
+import com.cms.dto.CursorPageDto;
+import com.cms.dto.ImportDto;
 import com.cms.dto.PodcastDto;
+import com.cms.repository.projection.ContentVersion;
 import com.cms.service.PodcastService;
+import com.cms.util.ConditionalRequestUtil;
+import com.cms.util.NdjsonWriter;
 import com.cms.util.SecurityUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/podcasts")
@@ -20,6 +31,9 @@ public class PodcastController {
     @Autowired
     private SecurityUtil securityUtil;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     public ResponseEntity<PodcastDto.PodcastResponseDto> create(@Valid @RequestBody PodcastDto.PodcastRequestDto requestDto) {
         if (!securityUtil.isAdmin()) {
@@ -30,14 +44,51 @@ public class PodcastController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PodcastDto.PodcastResponseDto> getById(@PathVariable Long id) {
+    public ResponseEntity<PodcastDto.PodcastResponseDto> getById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequestUtil.isConditional(request)) {
+            ContentVersion version = podcastService.getVersion(id);
+            String etag = ConditionalRequestUtil.etag(version.version());
+            if (ConditionalRequestUtil.isNotModified(request, etag, version.updatedAt())) {
+                return ConditionalRequestUtil.notModified(etag, version.updatedAt());
+            }
+        }
         PodcastDto.PodcastResponseDto response = podcastService.getById(id);
-        return ResponseEntity.ok(response);
+        return ConditionalRequestUtil.ok(response, ConditionalRequestUtil.etag(response.getVersion()),
+                response.getUpdatedAt());
     }
 
     @GetMapping
-    public ResponseEntity<List<PodcastDto.PodcastResponseDto>> getAll() {
-        List<PodcastDto.PodcastResponseDto> response = podcastService.getAll();
+    public ResponseEntity<CursorPageDto<PodcastDto.PodcastResponseDto>> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        CursorPageDto<PodcastDto.PodcastResponseDto> response = podcastService.getPage(cursor, limit);
+        String etag = ConditionalRequestUtil.pageEtag(response, item -> item.getId() + ":" + item.getVersion());
+        return ConditionalRequestUtil.respond(request, response, etag, null);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince) {
+        if (!securityUtil.isAdmin()) {
+            throw new com.cms.exception.BadRequestException("Only ADMIN users can export podcasts");
+        }
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            podcastService.export(updatedSince, writer::write);
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportDto.ImportResultDto> importNdjson(
+            InputStream body,
+            @RequestParam(required = false) Integer chunkSize) {
+        if (!securityUtil.isAdmin()) {
+            throw new com.cms.exception.BadRequestException("Only ADMIN users can import podcasts");
+        }
+        ImportDto.ImportResultDto response = podcastService.importNdjson(body, chunkSize);
         return ResponseEntity.ok(response);
     }
 
@@ -52,6 +103,22 @@ public class PodcastController {
         return ResponseEntity.ok(response);
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<PodcastDto.PodcastResponseDto> patch(
+            @PathVariable Long id,
+            @Valid @RequestBody PodcastDto.PodcastPatchDto patchDto,
+            WebRequest request) {
+        if (!securityUtil.isAdmin()) {
+            throw new com.cms.exception.BadRequestException("Only ADMIN users can update podcasts");
+        }
+        if (ConditionalRequestUtil.prefersMinimalReturn(request)) {
+            podcastService.patchWithoutReading(id, patchDto);
+            return ResponseEntity.noContent().build();
+        }
+        PodcastDto.PodcastResponseDto response = podcastService.patch(id, patchDto);
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         if (!securityUtil.isAdmin()) {
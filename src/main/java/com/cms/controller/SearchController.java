@@ -0,0 +1,23 @@
+package com.cms.controller;
+
+import com.cms.dto.SearchDto;
+import com.cms.service.TitleSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+    @Autowired
+    private TitleSearchService titleSearchService;
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SearchDto.SuggestionDto>> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(titleSearchService.suggest(query, limit));
+    }
+}
@@ -1,6 +1,7 @@
 package com.cms.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import java.time.LocalDateTime;
 
 public class ArticleDto {
@@ -38,14 +39,55 @@ public class ArticleDto {
         }
     }
 
+    /**
+     * Fields left null are not changed.
+     */
+    public static class ArticlePatchDto {
+        @Pattern(regexp = "(?s).*\\S.*", message = "Title must not be blank")
+        private String title;
+
+        @Pattern(regexp = "(?s).*\\S.*", message = "Content must not be blank")
+        private String content;
+
+        private LocalDateTime publicationDate;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public void setContent(String content) {
+            this.content = content;
+        }
+
+        public LocalDateTime getPublicationDate() {
+            return publicationDate;
+        }
+
+        public void setPublicationDate(LocalDateTime publicationDate) {
+            this.publicationDate = publicationDate;
+        }
+    }
+
     public static class ArticleResponseDto {
         private Long id;
         private String title;
         private String content;
+        private String excerpt;
+        private Integer readingTimeMinutes;
         private Long authorId;
         private String authorUsername;
         private LocalDateTime publicationDate;
         private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        private Long version;
 
         public Long getId() {
             return id;
@@ -71,6 +113,22 @@ public class ArticleDto {
             this.content = content;
         }
 
+        public String getExcerpt() {
+            return excerpt;
+        }
+
+        public void setExcerpt(String excerpt) {
+            this.excerpt = excerpt;
+        }
+
+        public Integer getReadingTimeMinutes() {
+            return readingTimeMinutes;
+        }
+
+        public void setReadingTimeMinutes(Integer readingTimeMinutes) {
+            this.readingTimeMinutes = readingTimeMinutes;
+        }
+
         public Long getAuthorId() {
             return authorId;
         }
@@ -102,6 +160,207 @@ public class ArticleDto {
         public void setCreatedAt(LocalDateTime createdAt) {
             this.createdAt = createdAt;
         }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        public void setUpdatedAt(LocalDateTime updatedAt) {
+            this.updatedAt = updatedAt;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public void setVersion(Long version) {
+            this.version = version;
+        }
     }
-}
 
+    public static class ArticleSummaryDto {
+        private Long id;
+        private String title;
+        private String excerpt;
+        private Integer readingTimeMinutes;
+        private Long authorId;
+        private String authorUsername;
+        private LocalDateTime publicationDate;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        private Long version;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getExcerpt() {
+            return excerpt;
+        }
+
+        public void setExcerpt(String excerpt) {
+            this.excerpt = excerpt;
+        }
+
+        public Integer getReadingTimeMinutes() {
+            return readingTimeMinutes;
+        }
+
+        public void setReadingTimeMinutes(Integer readingTimeMinutes) {
+            this.readingTimeMinutes = readingTimeMinutes;
+        }
+
+        public Long getAuthorId() {
+            return authorId;
+        }
+
+        public void setAuthorId(Long authorId) {
+            this.authorId = authorId;
+        }
+
+        public String getAuthorUsername() {
+            return authorUsername;
+        }
+
+        public void setAuthorUsername(String authorUsername) {
+            this.authorUsername = authorUsername;
+        }
+
+        public LocalDateTime getPublicationDate() {
+            return publicationDate;
+        }
+
+        public void setPublicationDate(LocalDateTime publicationDate) {
+            this.publicationDate = publicationDate;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        public void setUpdatedAt(LocalDateTime updatedAt) {
+            this.updatedAt = updatedAt;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public void setVersion(Long version) {
+            this.version = version;
+        }
+    }
+
+    public static class ArticleSearchResultDto {
+        private Long id;
+        private String title;
+        private String excerpt;
+        private Integer readingTimeMinutes;
+        private Long authorId;
+        private String authorUsername;
+        private LocalDateTime publicationDate;
+        private LocalDateTime createdAt;
+        private Float rank;
+        private String snippet;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getExcerpt() {
+            return excerpt;
+        }
+
+        public void setExcerpt(String excerpt) {
+            this.excerpt = excerpt;
+        }
+
+        public Integer getReadingTimeMinutes() {
+            return readingTimeMinutes;
+        }
+
+        public void setReadingTimeMinutes(Integer readingTimeMinutes) {
+            this.readingTimeMinutes = readingTimeMinutes;
+        }
+
+        public Long getAuthorId() {
+            return authorId;
+        }
+
+        public void setAuthorId(Long authorId) {
+            this.authorId = authorId;
+        }
+
+        public String getAuthorUsername() {
+            return authorUsername;
+        }
+
+        public void setAuthorUsername(String authorUsername) {
+            this.authorUsername = authorUsername;
+        }
+
+        public LocalDateTime getPublicationDate() {
+            return publicationDate;
+        }
+
+        public void setPublicationDate(LocalDateTime publicationDate) {
+            this.publicationDate = publicationDate;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        public Float getRank() {
+            return rank;
+        }
+
+        public void setRank(Float rank) {
+            this.rank = rank;
+        }
+
+        public String getSnippet() {
+            return snippet;
+        }
+
+        public void setSnippet(String snippet) {
+            this.snippet = snippet;
+        }
+    }
+}
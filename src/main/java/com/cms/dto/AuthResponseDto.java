@@ -1,7 +1,13 @@
 package com.cms.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class AuthResponseDto {
     private String token;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String refreshToken;
+
     private UserDto.UserResponseDto user;
 
     public AuthResponseDto() {
@@ -12,6 +18,12 @@ public class AuthResponseDto {
         this.user = user;
     }
 
+    public AuthResponseDto(String token, String refreshToken, UserDto.UserResponseDto user) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.user = user;
+    }
+
     public String getToken() {
         return token;
     }
@@ -20,6 +32,14 @@ public class AuthResponseDto {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public UserDto.UserResponseDto getUser() {
         return user;
     }
@@ -28,4 +48,3 @@ public class AuthResponseDto {
         this.user = user;
     }
 }
-
@@ -57,8 +57,11 @@ public class CommentDto {
         private String contentType;
         private String text;
         private String author;
+        private String parentId;
+        private Long replyCount;
         private List<CommentResponseDto> replies;
         private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
 
         public String getId() {
             return id;
@@ -100,6 +103,22 @@ public class CommentDto {
             this.author = author;
         }
 
+        public String getParentId() {
+            return parentId;
+        }
+
+        public void setParentId(String parentId) {
+            this.parentId = parentId;
+        }
+
+        public Long getReplyCount() {
+            return replyCount;
+        }
+
+        public void setReplyCount(Long replyCount) {
+            this.replyCount = replyCount;
+        }
+
         public List<CommentResponseDto> getReplies() {
             return replies;
         }
@@ -115,6 +134,53 @@ public class CommentDto {
         public void setCreatedAt(LocalDateTime createdAt) {
             this.createdAt = createdAt;
         }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        public void setUpdatedAt(LocalDateTime updatedAt) {
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    public static class CommentCountDto {
+        private String contentType;
+        private Long contentId;
+        private long count;
+
+        public CommentCountDto() {
+        }
+
+        public CommentCountDto(String contentType, Long contentId, long count) {
+            this.contentType = contentType;
+            this.contentId = contentId;
+            this.count = count;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public void setContentType(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public Long getContentId() {
+            return contentId;
+        }
+
+        public void setContentId(Long contentId) {
+            this.contentId = contentId;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
     }
 }
 
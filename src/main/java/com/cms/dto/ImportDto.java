@@ -0,0 +1,113 @@
+package com.cms.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportDto {
+    public static class ImportResultDto {
+        private int imported;
+        private int failed;
+        private List<ChunkResultDto> chunks = new ArrayList<>();
+
+        public int getImported() {
+            return imported;
+        }
+
+        public void setImported(int imported) {
+            this.imported = imported;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public void setFailed(int failed) {
+            this.failed = failed;
+        }
+
+        public List<ChunkResultDto> getChunks() {
+            return chunks;
+        }
+
+        public void setChunks(List<ChunkResultDto> chunks) {
+            this.chunks = chunks;
+        }
+    }
+
+    public static class ChunkResultDto {
+        private int chunk;
+        private long firstLine;
+        private long lastLine;
+        private int imported;
+        private List<RowErrorDto> errors = new ArrayList<>();
+
+        public int getChunk() {
+            return chunk;
+        }
+
+        public void setChunk(int chunk) {
+            this.chunk = chunk;
+        }
+
+        public long getFirstLine() {
+            return firstLine;
+        }
+
+        public void setFirstLine(long firstLine) {
+            this.firstLine = firstLine;
+        }
+
+        public long getLastLine() {
+            return lastLine;
+        }
+
+        public void setLastLine(long lastLine) {
+            this.lastLine = lastLine;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public void setImported(int imported) {
+            this.imported = imported;
+        }
+
+        public List<RowErrorDto> getErrors() {
+            return errors;
+        }
+
+        public void setErrors(List<RowErrorDto> errors) {
+            this.errors = errors;
+        }
+    }
+
+    public static class RowErrorDto {
+        private long line;
+        private String message;
+
+        public RowErrorDto() {
+        }
+
+        public RowErrorDto(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.cms.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import java.util.List;
 import java.time.LocalDateTime;
 
@@ -39,12 +40,52 @@ public class PodcastDto {
         }
     }
 
+    /**
+     * Fields left null are not changed. {@code episodes}, when present, is the
+     * complete new episode list.
+     */
+    public static class PodcastPatchDto {
+        @Pattern(regexp = "(?s).*\\S.*", message = "Title must not be blank")
+        private String title;
+
+        @Pattern(regexp = "(?s).*\\S.*", message = "Audio URL must not be blank")
+        private String audioUrl;
+
+        private List<String> episodes;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getAudioUrl() {
+            return audioUrl;
+        }
+
+        public void setAudioUrl(String audioUrl) {
+            this.audioUrl = audioUrl;
+        }
+
+        public List<String> getEpisodes() {
+            return episodes;
+        }
+
+        public void setEpisodes(List<String> episodes) {
+            this.episodes = episodes;
+        }
+    }
+
     public static class PodcastResponseDto {
         private Long id;
         private String title;
         private String audioUrl;
         private List<String> episodes;
         private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        private Long version;
 
         public Long getId() {
             return id;
@@ -85,6 +126,22 @@ public class PodcastDto {
         public void setCreatedAt(LocalDateTime createdAt) {
             this.createdAt = createdAt;
         }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        public void setUpdatedAt(LocalDateTime updatedAt) {
+            this.updatedAt = updatedAt;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public void setVersion(Long version) {
+            this.version = version;
+        }
     }
 }
 
@@ -67,6 +67,19 @@ public class UserDto {
         }
     }
 
+    public static class RefreshTokenRequestDto {
+        @NotBlank(message = "Refresh token is required")
+        private String refreshToken;
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        public void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
+    }
+
     public static class UserResponseDto {
         private Long id;
         private String username;
@@ -2,6 +2,7 @@ package com.cms.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import java.time.Duration;
 import java.time.LocalDateTime;
 
@@ -41,12 +42,51 @@ public class VideoDto {
         }
     }
 
+    /**
+     * Fields left null are not changed.
+     */
+    public static class VideoPatchDto {
+        @Pattern(regexp = "(?s).*\\S.*", message = "Title must not be blank")
+        private String title;
+
+        @Pattern(regexp = "(?s).*\\S.*", message = "URL must not be blank")
+        private String url;
+
+        private Duration duration;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        public void setDuration(Duration duration) {
+            this.duration = duration;
+        }
+    }
+
     public static class VideoResponseDto {
         private Long id;
         private String title;
         private String url;
         private Duration duration;
         private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        private Long version;
 
         public Long getId() {
             return id;
@@ -87,6 +127,22 @@ public class VideoDto {
         public void setCreatedAt(LocalDateTime createdAt) {
             this.createdAt = createdAt;
         }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        public void setUpdatedAt(LocalDateTime updatedAt) {
+            this.updatedAt = updatedAt;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public void setVersion(Long version) {
+            this.version = version;
+        }
     }
 }
 
@@ -1,13 +1,27 @@
 package com.cms.model.document;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-
+import java.util.Locale;
+
+/**
+ * One comment or reply. Threads are stored flat: {@code path} is the chain of
+ * ancestor ids ending in this comment's own id, separated by {@code /}. Ids
+ * are fixed-width ObjectId hex, so sorting by path lists a content item's
+ * comments depth-first with siblings in creation order.
+ */
 @Document(collection = "comments")
+@CompoundIndexes({
+        @CompoundIndex(name = "content_path", def = "{'contentType': 1, 'contentId': 1, 'path': 1}"),
+        @CompoundIndex(name = "content_parent_created",
+                def = "{'contentType': 1, 'contentId': 1, 'parentId': 1, 'createdAt': 1, '_id': 1}")
+})
 public class Comment {
+    public static final String PATH_SEPARATOR = "/";
+
     @Id
     private String id;
 
@@ -15,13 +29,26 @@ public class Comment {
     private String contentType;
     private String text;
     private String author;
-    private List<Comment> replies = new ArrayList<>();
+    private String parentId;
+    private String rootId;
+    private String path;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 
+    // Spring Data also builds documents through this constructor, so only
+    // createdAt, which every stored comment has, gets a default here.
     public Comment() {
         this.createdAt = LocalDateTime.now();
     }
 
+    /**
+     * The stored form of a content type: trimmed and upper-case, matching the
+     * names the cleanup sweep and counters use.
+     */
+    public static String normalizeContentType(String contentType) {
+        return contentType == null ? null : contentType.trim().toUpperCase(Locale.ROOT);
+    }
+
     public String getId() {
         return id;
     }
@@ -62,12 +89,28 @@ public class Comment {
         this.author = author;
     }
 
-    public List<Comment> getReplies() {
-        return replies;
+    public String getParentId() {
+        return parentId;
     }
 
-    public void setReplies(List<Comment> replies) {
-        this.replies = replies;
+    public void setParentId(String parentId) {
+        this.parentId = parentId;
+    }
+
+    public String getRootId() {
+        return rootId;
+    }
+
+    public void setRootId(String rootId) {
+        this.rootId = rootId;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
     }
 
     public LocalDateTime getCreatedAt() {
@@ -77,5 +120,12 @@ public class Comment {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
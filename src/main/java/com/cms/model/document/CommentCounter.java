@@ -0,0 +1,67 @@
+package com.cms.model.document;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+/**
+ * Number of comments, replies included, on one content item. The id is
+ * {@code contentType:contentId}, so increments upsert on the primary key
+ * and a batch of counters is read with a single {@code _id $in} lookup.
+ */
+@Document(collection = "comment_counters")
+public class CommentCounter {
+    public static final String KEY_SEPARATOR = ":";
+
+    @Id
+    private String id;
+
+    private String contentType;
+    private Long contentId;
+    private long count;
+    private LocalDateTime updatedAt;
+
+    public static String key(String contentType, Long contentId) {
+        return contentType + KEY_SEPARATOR + contentId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getContentId() {
+        return contentId;
+    }
+
+    public void setContentId(Long contentId) {
+        this.contentId = contentId;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -1,6 +1,7 @@
 package com.cms.model.document;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
@@ -9,9 +10,17 @@ public class JwtToken {
     @Id
     private String id;
 
-    private String token;
+    // Unique index created by JwtTokenHashMigration once legacy documents have a digest.
+    private String tokenHash;
+
+    @Indexed
     private Long userId;
+
+    private TokenType type;
+
+    @Indexed(expireAfterSeconds = 0)
     private LocalDateTime expiresAt;
+
     private LocalDateTime createdAt;
 
     public JwtToken() {
@@ -26,12 +35,12 @@ public class JwtToken {
         this.id = id;
     }
 
-    public String getToken() {
-        return token;
+    public String getTokenHash() {
+        return tokenHash;
     }
 
-    public void setToken(String token) {
-        this.token = token;
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
     }
 
     public Long getUserId() {
@@ -42,6 +51,14 @@ public class JwtToken {
         this.userId = userId;
     }
 
+    public TokenType getType() {
+        return type;
+    }
+
+    public void setType(TokenType type) {
+        this.type = type;
+    }
+
     public LocalDateTime getExpiresAt() {
         return expiresAt;
     }
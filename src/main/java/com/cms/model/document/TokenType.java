@@ -0,0 +1,6 @@
+package com.cms.model.document;
+
+public enum TokenType {
+    ACCESS,
+    REFRESH
+}
@@ -1,13 +1,16 @@
 package com.cms.model.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Entity
+@DynamicUpdate
 @Table(name = "articles")
 public class Article {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "articles_id_seq")
+    @SequenceGenerator(name = "articles_id_seq", sequenceName = "articles_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -16,6 +19,12 @@ public class Article {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    @Column(length = 500)
+    private String excerpt;
+
+    @Column(name = "reading_time_minutes")
+    private Integer readingTimeMinutes;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
@@ -26,14 +35,27 @@ public class Article {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
         if (publicationDate == null) {
             publicationDate = LocalDateTime.now();
         }
     }
 
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
     public Long getId() {
         return id;
     }
@@ -58,6 +80,22 @@ public class Article {
         this.content = content;
     }
 
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
+    public Integer getReadingTimeMinutes() {
+        return readingTimeMinutes;
+    }
+
+    public void setReadingTimeMinutes(Integer readingTimeMinutes) {
+        this.readingTimeMinutes = readingTimeMinutes;
+    }
+
     public User getAuthor() {
         return author;
     }
@@ -81,5 +119,20 @@ public class Article {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -1,14 +1,21 @@
 package com.cms.model.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "podcasts")
 @Table(name = "podcasts")
 public class Podcast {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "podcasts_id_seq")
+    @SequenceGenerator(name = "podcasts_id_seq", sequenceName = "podcasts_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -18,16 +25,31 @@ public class Podcast {
     private String audioUrl;
 
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "podcastEpisodes")
     @CollectionTable(name = "podcast_episodes", joinColumns = @JoinColumn(name = "podcast_id"))
     @Column(name = "episode")
+    @OrderColumn(name = "episode_order")
     private List<String> episodes = new ArrayList<>();
 
     @Column(nullable = false, updatable = false)
     private java.time.LocalDateTime createdAt;
 
+    @Column(nullable = false)
+    private java.time.LocalDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = java.time.LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = java.time.LocalDateTime.now();
     }
 
     public Long getId() {
@@ -69,5 +91,20 @@ public class Podcast {
     public void setCreatedAt(java.time.LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
 
+    public java.time.LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(java.time.LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
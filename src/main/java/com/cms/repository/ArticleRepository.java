@@ -1,10 +1,93 @@
 package com.cms.repository;
 
 import com.cms.model.entity.Article;
+import com.cms.repository.projection.ArticleSearchHit;
+import com.cms.repository.projection.ArticleSummary;
+import com.cms.repository.projection.ContentTitle;
+import com.cms.repository.projection.ContentVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface ArticleRepository extends JpaRepository<Article, Long> {
-}
+    String SUMMARY_SELECT = "SELECT a.id AS id, a.title AS title, a.excerpt AS excerpt, "
+            + "a.readingTimeMinutes AS readingTimeMinutes, u.id AS authorId, u.username AS authorUsername, "
+            + "a.publicationDate AS publicationDate, a.createdAt AS createdAt, "
+            + "a.updatedAt AS updatedAt, a.version AS version "
+            + "FROM Article a JOIN a.author u ";
+
+    /**
+     * Ranks matches by id alone first, then joins back for the page only, so
+     * ts_headline runs on {@code :limit} bodies rather than on every match.
+     */
+    String SEARCH_QUERY = "WITH q AS (SELECT websearch_to_tsquery('english', :query) AS query), "
+            + "ranked AS (SELECT a.id, ts_rank(a.search_vector, q.query) AS rank "
+            + "FROM articles a, q WHERE a.search_vector @@ q.query "
+            + "ORDER BY rank DESC, a.id DESC LIMIT :limit OFFSET :offset) "
+            + "SELECT a.id AS \"id\", a.title AS \"title\", a.excerpt AS \"excerpt\", "
+            + "a.reading_time_minutes AS \"readingTimeMinutes\", u.id AS \"authorId\", "
+            + "u.username AS \"authorUsername\", a.publication_date AS \"publicationDate\", "
+            + "a.created_at AS \"createdAt\", r.rank AS \"rank\", "
+            + "ts_headline('english', replace(replace(replace(a.content, '&', '&amp;'), '<', '&lt;'), '>', '&gt;'), "
+            + "q.query, 'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=30, MinWords=10, "
+            + "FragmentDelimiter=\" ... \"') AS \"snippet\" "
+            + "FROM ranked r JOIN articles a ON a.id = r.id JOIN users u ON u.id = a.author_id, q "
+            + "ORDER BY r.rank DESC, r.id DESC";
+
+    @EntityGraph(attributePaths = "author")
+    Optional<Article> findWithAuthorById(Long id);
+
+    @Query(SUMMARY_SELECT + "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ArticleSummary> findSummaryFirstPage(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE a.createdAt <= :createdAt "
+            + "AND (a.createdAt < :createdAt OR a.id < :id) "
+            + "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ArticleSummary> findSummaryPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                              Pageable pageable);
 
+    @Query("SELECT new com.cms.repository.projection.ContentVersion(a.version, a.updatedAt) "
+            + "FROM Article a WHERE a.id = :id")
+    Optional<ContentVersion> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.cms.repository.projection.ContentTitle(a.id, a.title) "
+            + "FROM Article a WHERE a.id > :afterId ORDER BY a.id")
+    List<ContentTitle> findTitlesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.cms.repository.projection.ContentTitle(a.id, a.title) "
+            + "FROM Article a WHERE a.id IN :ids")
+    List<ContentTitle> findTitlesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.id FROM Article a WHERE a.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = SEARCH_QUERY, nativeQuery = true)
+    List<ArticleSearchHit> search(@Param("query") String query, @Param("limit") int limit,
+                                  @Param("offset") int offset);
+
+    /**
+     * Forward-only cursor over the catalogue in id order. The caller must
+     * consume it inside a transaction, which is also what makes the Postgres
+     * driver honour the fetch size instead of buffering the whole result.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")})
+    @Query("SELECT a FROM Article a JOIN FETCH a.author "
+            + "WHERE :updatedSince IS NULL OR a.updatedAt >= :updatedSince ORDER BY a.id")
+    Stream<Article> streamForExport(@Param("updatedSince") LocalDateTime updatedSince);
+}
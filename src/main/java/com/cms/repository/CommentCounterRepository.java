@@ -0,0 +1,9 @@
+package com.cms.repository;
+
+import com.cms.model.document.CommentCounter;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CommentCounterRepository extends MongoRepository<CommentCounter, String> {
+}
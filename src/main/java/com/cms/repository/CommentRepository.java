@@ -1,14 +1,77 @@
 package com.cms.repository;
 
 import com.cms.model.document.Comment;
+import com.cms.repository.projection.ReplyCount;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.DeleteQuery;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends MongoRepository<Comment, String> {
-    List<Comment> findByContentIdAndContentType(Long contentId, String contentType);
-    void deleteByContentIdAndContentType(Long contentId, String contentType);
-}
+    // Both methods below are served by the content_path index.
+    List<Comment> findByContentIdAndContentTypeOrderByPathAsc(Long contentId, String contentType);
+
+    /**
+     * The comment at {@code path} and all of its replies, depth-first.
+     * {@code pathPrefix} must be an anchored literal ({@code ^} + path) so
+     * Mongo can turn it into index bounds.
+     */
+    @Query(value = "{ 'contentType': ?0, 'contentId': ?1, 'path': { $regex: ?2 } }", sort = "{ 'path': 1 }")
+    List<Comment> findThread(String contentType, Long contentId, String pathPrefix);
+
+    @DeleteQuery("{ 'contentType': ?0, 'contentId': ?1, 'path': { $regex: ?2 } }")
+    long deleteThread(String contentType, Long contentId, String pathPrefix);
+
+    // Top-level comments newest first and replies oldest first, both served by
+    // the content_parent_created index.
+    @Query(value = "{ 'contentType': ?0, 'contentId': ?1, 'parentId': null }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Comment> findTopLevelFirstPage(String contentType, Long contentId, Pageable pageable);
+
+    @Query(value = "{ 'contentType': ?0, 'contentId': ?1, 'parentId': null, "
+            + "$or: [ { 'createdAt': { $lt: ?2 } }, { 'createdAt': ?2, '_id': { $lt: ?3 } } ] }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Comment> findTopLevelPageAfter(String contentType, Long contentId, LocalDateTime createdAt, ObjectId id,
+                                        Pageable pageable);
 
+    @Query(value = "{ 'contentType': ?0, 'contentId': ?1, 'parentId': ?2 }",
+            sort = "{ 'createdAt': 1, '_id': 1 }")
+    List<Comment> findRepliesFirstPage(String contentType, Long contentId, String parentId, Pageable pageable);
+
+    @Query(value = "{ 'contentType': ?0, 'contentId': ?1, 'parentId': ?2, "
+            + "$or: [ { 'createdAt': { $gt: ?3 } }, { 'createdAt': ?3, '_id': { $gt: ?4 } } ] }",
+            sort = "{ 'createdAt': 1, '_id': 1 }")
+    List<Comment> findRepliesPageAfter(String contentType, Long contentId, String parentId, LocalDateTime createdAt,
+                                       ObjectId id, Pageable pageable);
+
+    @Aggregation(pipeline = {
+            "{ $match: { 'contentType': ?0, 'contentId': ?1, 'parentId': { $in: ?2 } } }",
+            "{ $group: { _id: '$parentId', count: { $sum: 1 } } }"
+    })
+    List<ReplyCount> countReplies(String contentType, Long contentId, Collection<String> parentIds);
+
+    // Ids only, for deleting a content item's comments a batch at a time.
+    @Query(value = "{ 'contentType': ?0, 'contentId': ?1 }", fields = "{ '_id': 1 }")
+    List<Comment> findIdsByContent(String contentType, Long contentId, Pageable pageable);
+
+    /**
+     * Distinct content ids of one type above {@code afterId}, ascending. The
+     * leading sort lets Mongo read the ids from the content_path index.
+     */
+    @Aggregation(pipeline = {
+            "{ $match: { 'contentType': ?0, 'contentId': { $gt: ?1 } } }",
+            "{ $sort: { 'contentType': 1, 'contentId': 1 } }",
+            "{ $group: { _id: '$contentId' } }",
+            "{ $sort: { _id: 1 } }",
+            "{ $limit: ?2 }"
+    })
+    List<Long> findContentIdsAfter(String contentType, Long afterId, int limit);
+}
@@ -1,10 +1,58 @@
 package com.cms.repository;
 
 import com.cms.model.entity.Podcast;
+import com.cms.repository.projection.ContentTitle;
+import com.cms.repository.projection.ContentVersion;
+import com.cms.repository.projection.PodcastEpisode;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface PodcastRepository extends JpaRepository<Podcast, Long> {
-}
+    @Query("SELECT p FROM Podcast p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Podcast> findFirstPage(Pageable pageable);
+
+    @Query("SELECT p FROM Podcast p WHERE p.createdAt <= :createdAt "
+            + "AND (p.createdAt < :createdAt OR p.id < :id) "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Podcast> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.cms.repository.projection.ContentVersion(p.version, p.updatedAt) "
+            + "FROM Podcast p WHERE p.id = :id")
+    Optional<ContentVersion> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.cms.repository.projection.ContentTitle(p.id, p.title) "
+            + "FROM Podcast p WHERE p.id > :afterId ORDER BY p.id")
+    List<ContentTitle> findTitlesAfter(@Param("afterId") Long afterId, Pageable pageable);
 
+    @Query("SELECT new com.cms.repository.projection.ContentTitle(p.id, p.title) "
+            + "FROM Podcast p WHERE p.id IN :ids")
+    List<ContentTitle> findTitlesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Podcast p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")})
+    @Query("SELECT p FROM Podcast p "
+            + "WHERE :updatedSince IS NULL OR p.updatedAt >= :updatedSince ORDER BY p.id")
+    Stream<Podcast> streamForExport(@Param("updatedSince") LocalDateTime updatedSince);
+
+    @Query("SELECT new com.cms.repository.projection.PodcastEpisode(p.id, e) "
+            + "FROM Podcast p JOIN p.episodes e WHERE p.id IN :ids ORDER BY p.id, INDEX(e)")
+    List<PodcastEpisode> findEpisodesByPodcastIds(@Param("ids") Collection<Long> ids);
+}
@@ -1,10 +1,53 @@
 package com.cms.repository;
 
 import com.cms.model.entity.Video;
+import com.cms.repository.projection.ContentTitle;
+import com.cms.repository.projection.ContentVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface VideoRepository extends JpaRepository<Video, Long> {
-}
+    @Query("SELECT v FROM Video v ORDER BY v.createdAt DESC, v.id DESC")
+    List<Video> findFirstPage(Pageable pageable);
+
+    @Query("SELECT v FROM Video v WHERE v.createdAt <= :createdAt "
+            + "AND (v.createdAt < :createdAt OR v.id < :id) "
+            + "ORDER BY v.createdAt DESC, v.id DESC")
+    List<Video> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.cms.repository.projection.ContentVersion(v.version, v.updatedAt) "
+            + "FROM Video v WHERE v.id = :id")
+    Optional<ContentVersion> findVersionById(@Param("id") Long id);
 
+    @Query("SELECT new com.cms.repository.projection.ContentTitle(v.id, v.title) "
+            + "FROM Video v WHERE v.id > :afterId ORDER BY v.id")
+    List<ContentTitle> findTitlesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.cms.repository.projection.ContentTitle(v.id, v.title) "
+            + "FROM Video v WHERE v.id IN :ids")
+    List<ContentTitle> findTitlesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT v.id FROM Video v WHERE v.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")})
+    @Query("SELECT v FROM Video v "
+            + "WHERE :updatedSince IS NULL OR v.updatedAt >= :updatedSince ORDER BY v.id")
+    Stream<Video> streamForExport(@Param("updatedSince") LocalDateTime updatedSince);
+}
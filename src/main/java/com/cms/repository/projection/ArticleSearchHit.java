@@ -0,0 +1,29 @@
+package com.cms.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * One ranked full-text match. The snippet is an HTML fragment with matched
+ * terms wrapped in {@code <mark>}; the rest of the text is escaped.
+ */
+public interface ArticleSearchHit {
+    Long getId();
+
+    String getTitle();
+
+    String getExcerpt();
+
+    Integer getReadingTimeMinutes();
+
+    Long getAuthorId();
+
+    String getAuthorUsername();
+
+    LocalDateTime getPublicationDate();
+
+    LocalDateTime getCreatedAt();
+
+    Float getRank();
+
+    String getSnippet();
+}
@@ -0,0 +1,29 @@
+package com.cms.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * List-view columns of an article. Deliberately has no content accessor so the
+ * TEXT body is never selected.
+ */
+public interface ArticleSummary {
+    Long getId();
+
+    String getTitle();
+
+    String getExcerpt();
+
+    Integer getReadingTimeMinutes();
+
+    Long getAuthorId();
+
+    String getAuthorUsername();
+
+    LocalDateTime getPublicationDate();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getVersion();
+}
@@ -0,0 +1,7 @@
+package com.cms.repository.projection;
+
+/**
+ * Id and title of a content row, read in id order to build the title search index.
+ */
+public record ContentTitle(Long id, String title) {
+}
@@ -0,0 +1,9 @@
+package com.cms.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Validators of a content row, read without loading the entity for conditional GETs.
+ */
+public record ContentVersion(Long version, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,7 @@
+package com.cms.repository.projection;
+
+/**
+ * One episode row, loaded for a batch of podcasts at once during export.
+ */
+public record PodcastEpisode(Long podcastId, String episode) {
+}
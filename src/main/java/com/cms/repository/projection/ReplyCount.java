@@ -0,0 +1,7 @@
+package com.cms.repository.projection;
+
+/**
+ * Number of direct replies to the comment with this id.
+ */
+public record ReplyCount(String id, long count) {
+}
@@ -0,0 +1,36 @@
+package com.cms.security;
+
+import com.cms.model.entity.Role;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collections;
+
+public class CmsUserDetails extends User {
+    private final Long id;
+    private final String email;
+    private final Role role;
+
+    public CmsUserDetails(Long id, String username, String email, String password, Role role) {
+        super(username, password, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        this.id = id;
+        this.email = email;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public CmsUserDetails copy() {
+        return new CmsUserDetails(id, getUsername(), email, getPassword(), role);
+    }
+}
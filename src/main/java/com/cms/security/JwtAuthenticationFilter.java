@@ -1,6 +1,7 @@
 package com.cms.security;
 
 import com.cms.service.JwtTokenService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,6 +19,9 @@ import java.io.IOException;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    static final String STREAM_PATH = "/api/comments/stream";
+    static final String ACCESS_TOKEN_PARAMETER = "access_token";
+
     @Autowired
     private JwtTokenProvider tokenProvider;
 
@@ -32,16 +36,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         String token = getTokenFromRequest(request);
 
-        if (token != null && jwtTokenService.isTokenValid(token)) {
+        if (token != null) {
             try {
-                String username = tokenProvider.getUsernameFromToken(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                Claims claims = tokenProvider.parseClaims(token);
+
+                if (jwtTokenService.isTokenActive(token, claims)) {
+                    JwtPrincipal principal = new JwtPrincipal(
+                            tokenProvider.getUserId(claims), claims.getSubject(), claims);
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(principal.getUsername());
 
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            principal, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             } catch (Exception e) {
                 SecurityContextHolder.clearContext();
             }
@@ -55,7 +64,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
             return bearerToken.substring(7);
         }
+        // A browser EventSource cannot set headers, so the comment stream also
+        // takes the token as a query parameter. No other endpoint does, to keep
+        // tokens out of URLs and access logs.
+        if ("GET".equals(request.getMethod())
+                && STREAM_PATH.equals(request.getRequestURI().substring(request.getContextPath().length()))) {
+            String token = request.getParameter(ACCESS_TOKEN_PARAMETER);
+            if (token != null && !token.isBlank()) {
+                return token;
+            }
+        }
         return null;
     }
 }
-
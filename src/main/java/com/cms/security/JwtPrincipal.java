@@ -0,0 +1,38 @@
+package com.cms.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+public class JwtPrincipal implements AuthenticatedPrincipal {
+    private final Long userId;
+    private final String username;
+    private final Claims claims;
+
+    public JwtPrincipal(Long userId, String username, Claims claims) {
+        this.userId = userId;
+        this.username = username;
+        this.claims = claims;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -1,6 +1,9 @@
 package com.cms.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,9 +29,22 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.security.password-hashing.pool-size:0}")
+    private int passwordHashingPoolSize;
+
+    @Value("${spring.security.password-hashing.queue-capacity:64}")
+    private int passwordHashingQueueCapacity;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int poolSize = passwordHashingPoolSize > 0
+                ? passwordHashingPoolSize
+                : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize,
+                passwordHashingQueueCapacity, meterRegistry);
     }
 
     @Bean
@@ -49,6 +65,10 @@ public class SecurityConfig {
         http.csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Streamed responses (exports, comment streams) finish on an ASYNC
+                        // dispatch that the JWT filter skips; the initial REQUEST dispatch
+                        // has already been authorized.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/api-docs/**", "/v3/api-docs/**", "/swagger-resources/**", "/webjars/**").permitAll()
                         .anyRequest().authenticated()
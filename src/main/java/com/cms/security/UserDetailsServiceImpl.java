@@ -2,29 +2,80 @@ package com.cms.security;
 
 import com.cms.model.entity.User;
 import com.cms.repository.UserRepository;
+import com.cms.service.CacheInvalidationListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, CacheInvalidationListener {
+    public static final String CACHE_NAME = "userDetails";
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.security.user-cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    @Value("${spring.security.user-cache.ttl:300000}")
+    private long cacheTtl;
+
+    private Cache<String, CmsUserDetails> userCache;
+
+    @PostConstruct
+    public void init() {
+        userCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheTtl, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, CACHE_NAME);
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // Callers such as ProviderManager erase credentials on the instance they get back,
+        // so the cached snapshot is never handed out directly.
+        return userCache.get(username, this::loadFromDatabase).copy();
+    }
+
+    public void evictUser(String username) {
+        userCache.invalidate(username);
+    }
+
+    public void evictAll() {
+        userCache.invalidateAll();
+    }
+
+    @Override
+    public void onInvalidate(String cacheName, Object key) {
+        if (CACHE_NAME.equals(cacheName)) {
+            evictUser((String) key);
+        }
+    }
+
+    @Override
+    public void onFlush() {
+        evictAll();
+    }
+
+    private CmsUserDetails loadFromDatabase(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(Collections.singletonList(() -> "ROLE_" + user.getRole().name()))
-                .build();
+        return new CmsUserDetails(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), user.getRole());
     }
 }
-
@@ -1,44 +1,95 @@
 package com.cms.service;
 
+import com.cms.config.CacheConfig;
 import com.cms.dto.ArticleDto;
+import com.cms.dto.CursorPageDto;
+import com.cms.dto.ImportDto;
+import com.cms.exception.BadRequestException;
 import com.cms.exception.ResourceNotFoundException;
 import com.cms.model.entity.Article;
 import com.cms.model.entity.User;
 import com.cms.repository.ArticleRepository;
+import com.cms.repository.projection.ArticleSearchHit;
+import com.cms.repository.projection.ArticleSummary;
+import com.cms.repository.projection.ContentVersion;
+import com.cms.util.CursorUtil;
+import com.cms.util.PartialUpdate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ArticleService {
+    private static final int EXCERPT_LENGTH = 280;
+    private static final int WORDS_PER_MINUTE = 200;
+    private static final int MAX_QUERY_LENGTH = 200;
+    // Ranking sorts every match, so deep pages cost as much as the first;
+    // past this depth clients should refine the query instead.
+    private static final int MAX_SEARCH_OFFSET = 1000;
+
     @Autowired
     private ArticleRepository articleRepository;
 
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private TitleSearchService titleSearchService;
+
+    @Autowired
+    private CommentCleanupService commentCleanupService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
     @Transactional
     public ArticleDto.ArticleResponseDto create(ArticleDto.ArticleRequestDto requestDto, Long authorId) {
         User author = userService.findById(authorId);
 
-        Article article = new Article();
-        article.setTitle(requestDto.getTitle());
-        article.setContent(requestDto.getContent());
-        article.setAuthor(author);
-        article.setPublicationDate(requestDto.getPublicationDate() != null
-                ? requestDto.getPublicationDate()
-                : LocalDateTime.now());
-
-        article = articleRepository.save(article);
+        Article article = articleRepository.save(newArticle(requestDto, author));
+        // Other nodes add the new title to their search index on this message.
+        cacheInvalidationBus.publish(CacheConfig.ARTICLES, article.getId());
+        titleSearchService.index(TitleSearchIndex.ContentType.ARTICLE, article.getId(), article.getTitle());
         return convertToDto(article);
     }
 
+    /**
+     * Imports one article per NDJSON line, all authored by {@code authorId}.
+     * Each chunk commits on its own; see {@link BulkImportService}.
+     */
+    public ImportDto.ImportResultDto importNdjson(InputStream in, Integer chunkSize, Long authorId) {
+        userService.findById(authorId);
+        return bulkImportService.importNdjson(in, chunkSize, ArticleDto.ArticleRequestDto.class,
+                requestDto -> newArticle(requestDto, entityManager.getReference(User.class, authorId)),
+                this::onImported);
+    }
+
+    public ContentVersion getVersion(Long id) {
+        return articleRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Article not found with id: " + id));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.ARTICLES, key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public ArticleDto.ArticleResponseDto getById(Long id) {
-        Article article = articleRepository.findById(id)
+        Article article = articleRepository.findWithAuthorById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Article not found with id: " + id));
         if (article.getAuthor() == null) {
             throw new ResourceNotFoundException("Article author not found");
@@ -46,34 +97,159 @@ public class ArticleService {
         return convertToDto(article);
     }
 
-    public List<ArticleDto.ArticleResponseDto> getAll() {
-        return articleRepository.findAll().stream()
-                .filter(article -> article.getAuthor() != null)
-                .map(this::convertToDto)
+    public CursorPageDto<ArticleDto.ArticleSummaryDto> getPage(String cursor, Integer limit) {
+        int pageSize = CursorUtil.normalizeLimit(limit);
+        List<ArticleSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = articleRepository.findSummaryFirstPage(CursorUtil.pageable(pageSize));
+        } else {
+            CursorUtil.Cursor position = CursorUtil.decode(cursor);
+            rows = articleRepository.findSummaryPageAfter(position.createdAt(), position.id(),
+                    CursorUtil.pageable(pageSize));
+        }
+        return CursorUtil.toPage(rows, pageSize, this::convertToSummaryDto,
+                summary -> CursorUtil.encode(summary.getCreatedAt(), summary.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<ArticleDto.ArticleSearchResultDto> search(String query, String cursor, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query is required");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        int pageSize = CursorUtil.normalizeLimit(limit);
+        int offset = cursor == null || cursor.isBlank() ? 0 : CursorUtil.decodeOffset(cursor);
+        if (offset > MAX_SEARCH_OFFSET) {
+            throw new BadRequestException("Search results are limited to the first " + MAX_SEARCH_OFFSET + " matches");
+        }
+
+        List<ArticleSearchHit> rows = articleRepository.search(query.trim(), pageSize + 1, offset);
+        boolean hasMore = rows.size() > pageSize && offset + pageSize <= MAX_SEARCH_OFFSET;
+        List<ArticleDto.ArticleSearchResultDto> items = rows.stream()
+                .limit(pageSize)
+                .map(this::convertToSearchResultDto)
                 .collect(Collectors.toList());
+        return new CursorPageDto<>(items, hasMore ? CursorUtil.encodeOffset(offset + pageSize) : null);
     }
 
+    /**
+     * Streams every article updated at or after {@code updatedSince} (all of
+     * them when null) to {@code sink} in id order. Rows are detached once
+     * written so the persistence context stays empty however large the
+     * catalogue is.
+     */
+    @Transactional(readOnly = true)
+    public void export(LocalDateTime updatedSince, Consumer<ArticleDto.ArticleResponseDto> sink) {
+        try (Stream<Article> rows = articleRepository.streamForExport(updatedSince)) {
+            rows.forEach(article -> {
+                sink.accept(convertToDto(article));
+                entityManager.detach(article);
+                entityManager.detach(article.getAuthor());
+            });
+        }
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.ARTICLES, key = "#id")
     @Transactional
     public ArticleDto.ArticleResponseDto update(Long id, ArticleDto.ArticleRequestDto requestDto) {
-        Article article = articleRepository.findById(id)
+        Article article = articleRepository.findWithAuthorById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Article not found with id: " + id));
 
         article.setTitle(requestDto.getTitle());
-        article.setContent(requestDto.getContent());
+        setContent(article, requestDto.getContent());
         if (requestDto.getPublicationDate() != null) {
             article.setPublicationDate(requestDto.getPublicationDate());
         }
 
-        article = articleRepository.save(article);
+        // Flush now so the returned version and updatedAt reflect this write.
+        article = articleRepository.saveAndFlush(article);
+        cacheInvalidationBus.publish(CacheConfig.ARTICLES, id);
+        titleSearchService.index(TitleSearchIndex.ContentType.ARTICLE, id, article.getTitle());
+        return convertToDto(article);
+    }
+
+    /**
+     * Applies the non-null fields of {@code patchDto}. Only columns whose value
+     * actually changes are written, so a title edit leaves {@code content}
+     * untouched.
+     */
+    @CacheEvict(cacheNames = CacheConfig.ARTICLES, key = "#id")
+    @Transactional
+    public ArticleDto.ArticleResponseDto patch(Long id, ArticleDto.ArticlePatchDto patchDto) {
+        Article article = articleRepository.findWithAuthorById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Article not found with id: " + id));
+
+        if (patchDto.getTitle() != null) {
+            article.setTitle(patchDto.getTitle());
+        }
+        if (patchDto.getContent() != null) {
+            setContent(article, patchDto.getContent());
+        }
+        if (patchDto.getPublicationDate() != null) {
+            article.setPublicationDate(patchDto.getPublicationDate());
+        }
+
+        article = articleRepository.saveAndFlush(article);
+        cacheInvalidationBus.publish(CacheConfig.ARTICLES, id);
+        titleSearchService.index(TitleSearchIndex.ContentType.ARTICLE, id, article.getTitle());
         return convertToDto(article);
     }
 
+    /**
+     * Same as {@link #patch} but issues a single UPDATE without reading the
+     * row first, for callers that do not need the result.
+     */
+    @CacheEvict(cacheNames = CacheConfig.ARTICLES, key = "#id")
+    @Transactional
+    public void patchWithoutReading(Long id, ArticleDto.ArticlePatchDto patchDto) {
+        PartialUpdate<Article> update = PartialUpdate.of(entityManager, Article.class)
+                .set("title", patchDto.getTitle())
+                .set("publicationDate", patchDto.getPublicationDate());
+        if (patchDto.getContent() != null) {
+            update.set("content", patchDto.getContent())
+                    .set("excerpt", buildExcerpt(patchDto.getContent()))
+                    .set("readingTimeMinutes", readingTimeMinutes(patchDto.getContent()));
+        }
+        if (update.execute(id) == 0) {
+            throw new ResourceNotFoundException("Article not found with id: " + id);
+        }
+        cacheInvalidationBus.publish(CacheConfig.ARTICLES, id);
+        if (patchDto.getTitle() != null) {
+            titleSearchService.index(TitleSearchIndex.ContentType.ARTICLE, id, patchDto.getTitle());
+        }
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.ARTICLES, key = "#id")
     @Transactional
     public void delete(Long id) {
         if (!articleRepository.existsById(id)) {
             throw new ResourceNotFoundException("Article not found with id: " + id);
         }
         articleRepository.deleteById(id);
+        cacheInvalidationBus.publish(CacheConfig.ARTICLES, id);
+        titleSearchService.remove(TitleSearchIndex.ContentType.ARTICLE, id);
+        commentCleanupService.deleteForContent(TitleSearchIndex.ContentType.ARTICLE, id);
+    }
+
+    private Article newArticle(ArticleDto.ArticleRequestDto requestDto, User author) {
+        Article article = new Article();
+        article.setTitle(requestDto.getTitle());
+        setContent(article, requestDto.getContent());
+        article.setAuthor(author);
+        article.setPublicationDate(requestDto.getPublicationDate() != null
+                ? requestDto.getPublicationDate()
+                : LocalDateTime.now());
+        return article;
+    }
+
+    private void onImported(List<Article> articles) {
+        cacheInvalidationBus.publishAll(CacheConfig.ARTICLES,
+                articles.stream().map(Article::getId).collect(Collectors.toList()));
+        for (Article article : articles) {
+            titleSearchService.index(TitleSearchIndex.ContentType.ARTICLE, article.getId(), article.getTitle());
+        }
     }
 
     private ArticleDto.ArticleResponseDto convertToDto(Article article) {
@@ -81,13 +257,67 @@ public class ArticleService {
         dto.setId(article.getId());
         dto.setTitle(article.getTitle());
         dto.setContent(article.getContent());
+        dto.setExcerpt(article.getExcerpt());
+        dto.setReadingTimeMinutes(article.getReadingTimeMinutes());
         if (article.getAuthor() != null) {
             dto.setAuthorId(article.getAuthor().getId());
             dto.setAuthorUsername(article.getAuthor().getUsername());
         }
         dto.setPublicationDate(article.getPublicationDate());
         dto.setCreatedAt(article.getCreatedAt());
+        dto.setUpdatedAt(article.getUpdatedAt());
+        dto.setVersion(article.getVersion());
+        return dto;
+    }
+
+    private ArticleDto.ArticleSummaryDto convertToSummaryDto(ArticleSummary summary) {
+        ArticleDto.ArticleSummaryDto dto = new ArticleDto.ArticleSummaryDto();
+        dto.setId(summary.getId());
+        dto.setTitle(summary.getTitle());
+        dto.setExcerpt(summary.getExcerpt());
+        dto.setReadingTimeMinutes(summary.getReadingTimeMinutes());
+        dto.setAuthorId(summary.getAuthorId());
+        dto.setAuthorUsername(summary.getAuthorUsername());
+        dto.setPublicationDate(summary.getPublicationDate());
+        dto.setCreatedAt(summary.getCreatedAt());
+        dto.setUpdatedAt(summary.getUpdatedAt());
+        dto.setVersion(summary.getVersion());
+        return dto;
+    }
+
+    private ArticleDto.ArticleSearchResultDto convertToSearchResultDto(ArticleSearchHit hit) {
+        ArticleDto.ArticleSearchResultDto dto = new ArticleDto.ArticleSearchResultDto();
+        dto.setId(hit.getId());
+        dto.setTitle(hit.getTitle());
+        dto.setExcerpt(hit.getExcerpt());
+        dto.setReadingTimeMinutes(hit.getReadingTimeMinutes());
+        dto.setAuthorId(hit.getAuthorId());
+        dto.setAuthorUsername(hit.getAuthorUsername());
+        dto.setPublicationDate(hit.getPublicationDate());
+        dto.setCreatedAt(hit.getCreatedAt());
+        dto.setRank(hit.getRank());
+        dto.setSnippet(hit.getSnippet());
         return dto;
     }
-}
 
+    private void setContent(Article article, String content) {
+        article.setContent(content);
+        article.setExcerpt(buildExcerpt(content));
+        article.setReadingTimeMinutes(readingTimeMinutes(content));
+    }
+
+    static String buildExcerpt(String content) {
+        String text = content.trim().replaceAll("\\s+", " ");
+        if (text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        int end = text.lastIndexOf(' ', EXCERPT_LENGTH);
+        return text.substring(0, end > 0 ? end : EXCERPT_LENGTH) + "…";
+    }
+
+    static int readingTimeMinutes(String content) {
+        String text = content.trim();
+        int words = text.isEmpty() ? 0 : text.split("\\s+").length;
+        return Math.max(1, (words + WORDS_PER_MINUTE - 1) / WORDS_PER_MINUTE);
+    }
+}
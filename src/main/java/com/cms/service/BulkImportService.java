@@ -0,0 +1,191 @@
+package com.cms.service;
+
+import com.cms.dto.ImportDto;
+import com.cms.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports newline-delimited JSON in chunks, one transaction per chunk.
+ * <p>
+ * Rows are parsed and validated as they are read, so only one chunk is held in
+ * memory. Each chunk is persisted, flushed as JDBC batches and cleared from the
+ * persistence context. If the chunk fails in the database, it is rolled back
+ * and replayed row by row, so the failing rows are reported and the rest are
+ * kept. Chunks that already committed stay committed if a later one fails.
+ */
+@Service
+public class BulkImportService {
+    public static final int MAX_CHUNK_SIZE = 5000;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${cms.import.chunk-size:1000}")
+    private int defaultChunkSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @param toEntity    maps a valid row to a new, unsaved entity; runs inside the chunk transaction
+     * @param onPersisted receives each chunk's entities after flush, before commit, with ids assigned
+     */
+    public <T, E> ImportDto.ImportResultDto importNdjson(InputStream in, Integer chunkSize, Class<T> rowType,
+                                                         Function<T, E> toEntity, Consumer<List<E>> onPersisted) {
+        int size = chunkSize == null ? defaultChunkSize : chunkSize;
+        if (size < 1 || size > MAX_CHUNK_SIZE) {
+            throw new BadRequestException("Chunk size must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+
+        ImportDto.ImportResultDto result = new ImportDto.ImportResultDto();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<Row<T>> rows = new ArrayList<>(size);
+            ImportDto.ChunkResultDto chunk = null;
+            int linesInChunk = 0;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (chunk == null) {
+                    chunk = new ImportDto.ChunkResultDto();
+                    chunk.setChunk(result.getChunks().size() + 1);
+                    chunk.setFirstLine(lineNumber);
+                }
+                chunk.setLastLine(lineNumber);
+
+                T value = parse(line, lineNumber, rowType, chunk);
+                if (value != null) {
+                    rows.add(new Row<>(lineNumber, value));
+                }
+                if (++linesInChunk == size) {
+                    store(rows, chunk, result, toEntity, onPersisted);
+                    rows.clear();
+                    chunk = null;
+                    linesInChunk = 0;
+                }
+            }
+            if (chunk != null) {
+                store(rows, chunk, result, toEntity, onPersisted);
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to read import body after " + result.getImported()
+                    + " imported rows: " + e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("cms.import.duration", "type", rowType.getSimpleName()));
+        }
+        return result;
+    }
+
+    private <T> T parse(String line, long lineNumber, Class<T> rowType, ImportDto.ChunkResultDto chunk) {
+        T value;
+        try {
+            value = objectMapper.readValue(line, rowType);
+        } catch (JsonProcessingException e) {
+            chunk.getErrors().add(new ImportDto.RowErrorDto(lineNumber, "Invalid JSON: " + e.getOriginalMessage()));
+            return null;
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            chunk.getErrors().add(new ImportDto.RowErrorDto(lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "))));
+            return null;
+        }
+        return value;
+    }
+
+    private <T, E> void store(List<Row<T>> rows, ImportDto.ChunkResultDto chunk, ImportDto.ImportResultDto result,
+                              Function<T, E> toEntity, Consumer<List<E>> onPersisted) {
+        if (!rows.isEmpty()) {
+            try {
+                persist(rows, toEntity, onPersisted);
+                chunk.setImported(rows.size());
+            } catch (RuntimeException chunkFailure) {
+                for (Row<T> row : rows) {
+                    try {
+                        persist(List.of(row), toEntity, onPersisted);
+                        chunk.setImported(chunk.getImported() + 1);
+                    } catch (RuntimeException rowFailure) {
+                        chunk.getErrors().add(new ImportDto.RowErrorDto(row.line(),
+                                NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage()));
+                    }
+                }
+            }
+        }
+        chunk.getErrors().sort(Comparator.comparingLong(ImportDto.RowErrorDto::getLine));
+        result.getChunks().add(chunk);
+        result.setImported(result.getImported() + chunk.getImported());
+        result.setFailed(result.getFailed() + chunk.getErrors().size());
+        meterRegistry.counter("cms.import.rows", "outcome", "imported").increment(chunk.getImported());
+        meterRegistry.counter("cms.import.rows", "outcome", "failed").increment(chunk.getErrors().size());
+    }
+
+    private <T, E> void persist(List<Row<T>> rows, Function<T, E> toEntity, Consumer<List<E>> onPersisted) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Imported rows are not read back soon; keep them out of the second-level cache.
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            List<E> entities = new ArrayList<>(rows.size());
+            for (Row<T> row : rows) {
+                E entity = toEntity.apply(row.value());
+                entityManager.persist(entity);
+                entities.add(entity);
+            }
+            entityManager.flush();
+            onPersisted.accept(entities);
+            entityManager.clear();
+        });
+    }
+
+    private record Row<T>(long line, T value) {
+    }
+}
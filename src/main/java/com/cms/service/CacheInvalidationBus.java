@@ -0,0 +1,225 @@
+package com.cms.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Broadcasts cache invalidations between CMS nodes over Postgres LISTEN/NOTIFY.
+ * <p>
+ * {@link #publish} issues {@code pg_notify} on the caller's transaction, so
+ * Postgres delivers the message only if and when that transaction commits. Each
+ * node keeps one dedicated listener connection and evicts the named key locally.
+ * Messages sent while the listener is disconnected are lost, so every local
+ * cache is flushed when the connection drops and again once it is restored.
+ */
+@Service
+public class CacheInvalidationBus {
+    static final String CHANNEL = "cms_cache_invalidation";
+    static final String FLUSH_ALL = "*";
+    // NOTIFY payloads are capped at 8000 bytes.
+    private static final int MAX_BATCH_LENGTH = 7000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired(required = false)
+    private List<CacheInvalidationListener> listeners = new ArrayList<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cms.cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cms.cache.invalidation.poll-timeout:1000}")
+    private int pollTimeout;
+
+    @Value("${cms.cache.invalidation.reconnect-delay:5000}")
+    private long reconnectDelay;
+
+    @Value("${spring.datasource.url}")
+    private String datasourceUrl;
+
+    @Value("${spring.datasource.username:}")
+    private String datasourceUsername;
+
+    @Value("${spring.datasource.password:}")
+    private String datasourcePassword;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+
+    private Thread listenerThread;
+
+    private Counter receivedCounter;
+
+    private Counter flushCounter;
+
+    @PostConstruct
+    public void start() {
+        receivedCounter = meterRegistry.counter("cms.cache.invalidation.received");
+        flushCounter = meterRegistry.counter("cms.cache.invalidation.flushes");
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    public void publish(String cacheName, Object key) {
+        if (!enabled) {
+            return;
+        }
+        notify(cacheName, key instanceof Long ? "L" : "S", String.valueOf(key));
+    }
+
+    /**
+     * Publishes many ids of one cache as comma-separated batches, so a bulk
+     * write costs one notification per few hundred rows rather than one per row.
+     */
+    public void publishAll(String cacheName, Collection<Long> keys) {
+        if (!enabled || keys.isEmpty()) {
+            return;
+        }
+        StringBuilder batch = new StringBuilder();
+        for (Long key : keys) {
+            if (batch.length() > MAX_BATCH_LENGTH) {
+                notify(cacheName, "N", batch.toString());
+                batch.setLength(0);
+            }
+            if (batch.length() > 0) {
+                batch.append(',');
+            }
+            batch.append(key);
+        }
+        notify(cacheName, "N", batch.toString());
+    }
+
+    private void notify(String cacheName, String keyType, String key) {
+        String payload = String.join("|", nodeId, cacheName, keyType, key);
+        jdbcTemplate.execute("SELECT pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) statement -> {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, payload);
+            return statement.execute();
+        });
+    }
+
+    void handle(String payload) {
+        String[] parts = payload.split("\\|", 4);
+        if (parts.length < 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+        receivedCounter.increment();
+
+        String cacheName = parts[1];
+        if (FLUSH_ALL.equals(cacheName)) {
+            flushAll();
+            return;
+        }
+
+        List<Object> keys = new ArrayList<>();
+        try {
+            switch (parts[2]) {
+                case "L" -> keys.add(Long.valueOf(parts[3]));
+                case "N" -> {
+                    for (String id : parts[3].split(",")) {
+                        keys.add(Long.valueOf(id));
+                    }
+                }
+                default -> keys.add(parts[3]);
+            }
+        } catch (NumberFormatException e) {
+            flushAll();
+            return;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        for (Object key : keys) {
+            if (cache != null) {
+                cache.evict(key);
+            }
+            listeners.forEach(listener -> listener.onInvalidate(cacheName, key));
+        }
+    }
+
+    void flushAll() {
+        flushCounter.increment();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        listeners.forEach(CacheInvalidationListener::onFlush);
+    }
+
+    private void listen() {
+        while (running) {
+            boolean connected = false;
+            try (Connection connection = DriverManager.getConnection(datasourceUrl, datasourceUsername, datasourcePassword)) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                connected = true;
+                // Anything published before LISTEN took effect was missed.
+                flushAll();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeout);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (connected) {
+                    flushAll();
+                }
+            }
+
+            if (running) {
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.cms.service;
+
+/**
+ * Receives invalidations from other nodes for caches that are not managed by
+ * the Spring {@link org.springframework.cache.CacheManager}.
+ */
+public interface CacheInvalidationListener {
+    void onInvalidate(String cacheName, Object key);
+
+    void onFlush();
+}
@@ -0,0 +1,184 @@
+package com.cms.service;
+
+import com.cms.repository.ArticleRepository;
+import com.cms.repository.CommentRepository;
+import com.cms.repository.PodcastRepository;
+import com.cms.repository.VideoRepository;
+import com.cms.service.TitleSearchIndex.ContentType;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+
+/**
+ * Removes the comments of deleted articles, videos and podcasts.
+ * <p>
+ * Deleting content schedules the cleanup for after the transaction commits
+ * and runs it on a small bounded pool, so the DELETE request does not wait
+ * for Mongo and a rolled-back delete keeps its comments. Anything the cascade
+ * misses, because the pool was full, the node stopped or a comment arrived
+ * mid-cleanup, is caught by a periodic sweep that compares the content ids
+ * referenced in Mongo against Postgres a chunk at a time. Every node
+ * schedules the sweep, but only the one holding its lease runs it.
+ */
+@Service
+public class CommentCleanupService {
+    private static final String SWEEP_JOB = "comment-orphan-sweep";
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private PodcastRepository podcastRepository;
+
+    @Autowired
+    private ScheduledJobLock scheduledJobLock;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cms.comments.cleanup.pool-size:2}")
+    private int poolSize;
+
+    @Value("${cms.comments.cleanup.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${cms.comments.cleanup.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cms.comments.cleanup.sweep-chunk-size:1000}")
+    private int sweepChunkSize;
+
+    @Value("${cms.comments.cleanup.sweep-lock-lease:18000000}")
+    private long sweepLockLease;
+
+    // The shared applicationTaskExecutor has an unbounded queue and would
+    // never reject, so a mass delete could pile up cleanups without limit.
+    private TaskExecutor taskExecutor;
+
+    @PostConstruct
+    public void init() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("comment-cleanup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        taskExecutor = executor;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (taskExecutor instanceof ThreadPoolTaskExecutor executor) {
+            executor.shutdown();
+        }
+    }
+
+    public void deleteForContent(ContentType type, Long contentId) {
+        afterCommit(() -> submit(type, contentId, "cascade"));
+    }
+
+    /**
+     * Deletes the comments of every content id that Mongo references but
+     * Postgres no longer has. Skipped while another node holds the lease,
+     * which is kept a little shorter than the interval.
+     *
+     * @return the number of content items whose comments were queued for deletion
+     */
+    @Scheduled(initialDelayString = "${cms.comments.cleanup.sweep-initial-delay:300000}",
+            fixedDelayString = "${cms.comments.cleanup.sweep-interval:21600000}")
+    public int sweepOrphans() {
+        if (!scheduledJobLock.tryAcquire(SWEEP_JOB, Duration.ofMillis(sweepLockLease))) {
+            return 0;
+        }
+        int swept = 0;
+        for (ContentType type : ContentType.values()) {
+            swept += sweep(type, existingIds(type));
+        }
+        return swept;
+    }
+
+    private int sweep(ContentType type, Function<Collection<Long>, List<Long>> existingIds) {
+        int swept = 0;
+        long afterId = Long.MIN_VALUE;
+        List<Long> chunk;
+        do {
+            chunk = commentRepository.findContentIdsAfter(type.name(), afterId, sweepChunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            Set<Long> existing = new HashSet<>(existingIds.apply(chunk));
+            for (Long contentId : chunk) {
+                if (!existing.contains(contentId)) {
+                    // The deletes go to the pool so the shared scheduler thread
+                    // only spends the scan here.
+                    submit(type, contentId, "sweep");
+                    swept++;
+                }
+            }
+            afterId = chunk.get(chunk.size() - 1);
+        } while (chunk.size() == sweepChunkSize);
+        return swept;
+    }
+
+    private void submit(ContentType type, Long contentId, String source) {
+        try {
+            taskExecutor.execute(() -> delete(type, contentId, source));
+        } catch (TaskRejectedException e) {
+            // Left for the next orphan sweep.
+            meterRegistry.counter("cms.comments.cleanup.rejected", "source", source).increment();
+        }
+    }
+
+    private void delete(ContentType type, Long contentId, String source) {
+        long deleted = commentService.deleteByContent(type.name(), contentId, batchSize);
+        meterRegistry.counter("cms.comments.cleanup.deleted", "source", source).increment(deleted);
+    }
+
+    private Function<Collection<Long>, List<Long>> existingIds(ContentType type) {
+        return switch (type) {
+            case ARTICLE -> articleRepository::findExistingIds;
+            case VIDEO -> videoRepository::findExistingIds;
+            case PODCAST -> podcastRepository::findExistingIds;
+        };
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,226 @@
+package com.cms.service;
+
+import com.cms.dto.CommentDto;
+import com.cms.exception.BadRequestException;
+import com.cms.model.document.CommentCounter;
+import com.cms.repository.CommentCounterRepository;
+import com.cms.repository.CommentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a comment count per content item so lists can show counts without
+ * reading any comments.
+ * <p>
+ * Counters move with an atomic {@code $inc} whenever comments are created or
+ * deleted. A periodic reconciliation recounts the comments collection and
+ * overwrites any counter that has drifted, e.g. after a failed write, a
+ * manual cleanup or comments that predate the counters. A comment written
+ * while reconciliation runs may be miscounted until the next run.
+ */
+@Service
+public class CommentCounterService {
+    public static final int MAX_BATCH_SIZE = 500;
+    private static final String COMMENTS = "comments";
+    private static final String RECONCILE_JOB = "comment-counter-reconcile";
+
+    @Autowired
+    private CommentCounterRepository commentCounterRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ScheduledJobLock scheduledJobLock;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cms.comments.counters.reconcile-chunk-size:1000}")
+    private int reconcileChunkSize;
+
+    @Value("${cms.comments.counters.reconcile-lock-lease:3000000}")
+    private long reconcileLockLease;
+
+    public void increment(String contentType, Long contentId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        Update update = new Update()
+                .inc("count", delta)
+                .setOnInsert("contentType", contentType)
+                .setOnInsert("contentId", contentId)
+                .set("updatedAt", LocalDateTime.now());
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(CommentCounter.key(contentType, contentId))),
+                update, CommentCounter.class);
+    }
+
+    public void remove(String contentType, Long contentId) {
+        commentCounterRepository.deleteById(CommentCounter.key(contentType, contentId));
+    }
+
+    /**
+     * Returns one count per distinct id, in request order; content items
+     * without comments count as zero.
+     */
+    public List<CommentDto.CommentCountDto> getCounts(String contentType, Collection<Long> contentIds) {
+        if (contentIds == null || contentIds.isEmpty()) {
+            throw new BadRequestException("At least one content ID is required");
+        }
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(contentIds);
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most " + MAX_BATCH_SIZE + " content IDs can be requested at once");
+        }
+        Map<String, Long> counts = commentCounterRepository.findAllById(ids.stream()
+                        .map(contentId -> CommentCounter.key(contentType, contentId))
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(CommentCounter::getId, CommentCounter::getCount));
+        return ids.stream()
+                .map(contentId -> new CommentDto.CommentCountDto(contentType, contentId,
+                        Math.max(0L, counts.getOrDefault(CommentCounter.key(contentType, contentId), 0L))))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Recounts comments per content item and rewrites the counters that
+     * disagree; counters left for items with no comments are removed. Works
+     * through one range of content ids at a time, so memory stays bounded by
+     * the chunk size, and runs on one node per lease.
+     *
+     * @return the number of counters that were repaired
+     */
+    @Scheduled(initialDelayString = "${cms.comments.counters.reconcile-initial-delay:60000}",
+            fixedDelayString = "${cms.comments.counters.reconcile-interval:3600000}")
+    public int reconcile() {
+        if (!scheduledJobLock.tryAcquire(RECONCILE_JOB, Duration.ofMillis(reconcileLockLease))) {
+            return 0;
+        }
+        int repaired = 0;
+        for (String contentType : mongoTemplate.findDistinct(new Query(), "contentType", COMMENTS, String.class)) {
+            if (contentType != null) {
+                repaired += reconcileCommented(contentType);
+            }
+        }
+        repaired += removeOrphanedCounters();
+        meterRegistry.counter("cms.comments.counters.repaired").increment(repaired);
+        return repaired;
+    }
+
+    // Pages through the content ids with comments the way the orphan sweep
+    // does, then counts only the comments in that id range.
+    private int reconcileCommented(String contentType) {
+        int repaired = 0;
+        long afterId = Long.MIN_VALUE;
+        List<Long> chunk;
+        do {
+            chunk = commentRepository.findContentIdsAfter(contentType, afterId, reconcileChunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            long lastId = chunk.get(chunk.size() - 1);
+            Aggregation totals = Aggregation.newAggregation(
+                    Aggregation.match(Criteria.where("contentType").is(contentType)
+                            .and("contentId").gt(afterId).lte(lastId)),
+                    Aggregation.group("contentId").count().as("count"));
+            Map<String, Long> stored = commentCounterRepository.findAllById(chunk.stream()
+                            .map(contentId -> CommentCounter.key(contentType, contentId))
+                            .collect(Collectors.toList()))
+                    .stream()
+                    .collect(Collectors.toMap(CommentCounter::getId, CommentCounter::getCount));
+
+            BulkOperations repairs = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CommentCounter.class);
+            int changed = 0;
+            for (Document row : mongoTemplate.aggregate(totals, COMMENTS, Document.class)) {
+                long contentId = ((Number) row.get("_id")).longValue();
+                String key = CommentCounter.key(contentType, contentId);
+                Long count = stored.get(key);
+                if (count == null || count != countOf(row)) {
+                    repairs.upsert(new Query(Criteria.where("_id").is(key)), new Update()
+                            .set("contentType", contentType)
+                            .set("contentId", contentId)
+                            .set("count", countOf(row))
+                            .set("updatedAt", LocalDateTime.now()));
+                    changed++;
+                }
+            }
+            if (changed > 0) {
+                repairs.execute();
+            }
+            repaired += changed;
+            afterId = lastId;
+        } while (chunk.size() == reconcileChunkSize);
+        return repaired;
+    }
+
+    // Walks the counters in key order and drops those whose content item no
+    // longer has any comments.
+    private int removeOrphanedCounters() {
+        int removed = 0;
+        String afterKey = "";
+        List<CommentCounter> chunk;
+        do {
+            Query page = new Query(Criteria.where("_id").gt(afterKey))
+                    .with(Sort.by("_id"))
+                    .limit(reconcileChunkSize);
+            chunk = mongoTemplate.find(page, CommentCounter.class);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            List<String> orphaned = new ArrayList<>();
+            Map<String, List<CommentCounter>> byType = new HashMap<>();
+            for (CommentCounter counter : chunk) {
+                if (counter.getContentType() == null || counter.getContentId() == null) {
+                    orphaned.add(counter.getId());
+                } else {
+                    byType.computeIfAbsent(counter.getContentType(), type -> new ArrayList<>()).add(counter);
+                }
+            }
+            byType.forEach((contentType, counters) -> {
+                Query commented = new Query(Criteria.where("contentType").is(contentType).and("contentId")
+                        .in(counters.stream().map(CommentCounter::getContentId).collect(Collectors.toList())));
+                Set<Long> withComments = new HashSet<>(
+                        mongoTemplate.findDistinct(commented, "contentId", COMMENTS, Long.class));
+                counters.stream()
+                        .filter(counter -> !withComments.contains(counter.getContentId()))
+                        .forEach(counter -> orphaned.add(counter.getId()));
+            });
+            if (!orphaned.isEmpty()) {
+                mongoTemplate.remove(new Query(Criteria.where("_id").in(orphaned)), CommentCounter.class);
+                removed += orphaned.size();
+            }
+            afterKey = chunk.get(chunk.size() - 1).getId();
+        } while (chunk.size() == reconcileChunkSize);
+        return removed;
+    }
+
+    private static long countOf(Document row) {
+        return ((Number) row.get("count")).longValue();
+    }
+}
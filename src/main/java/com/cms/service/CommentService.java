@@ -1,13 +1,27 @@
 package com.cms.service;
 
+import com.cms.config.CacheConfig;
 import com.cms.dto.CommentDto;
+import com.cms.dto.CursorPageDto;
+import com.cms.exception.BadRequestException;
 import com.cms.exception.ResourceNotFoundException;
 import com.cms.model.document.Comment;
 import com.cms.repository.CommentRepository;
+import com.cms.repository.projection.ReplyCount;
+import com.cms.util.CursorUtil;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -15,38 +29,110 @@ public class CommentService {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private CommentCounterService commentCounterService;
+
+    @Autowired
+    private CommentStreamBroadcaster commentStreamBroadcaster;
+
     @org.springframework.transaction.annotation.Transactional
     public CommentDto.CommentResponseDto create(CommentDto.CommentRequestDto requestDto, String author) {
         Comment comment = new Comment();
+        // Assigned up front because the id is the last segment of the path.
+        comment.setId(new ObjectId().toHexString());
         comment.setContentId(requestDto.getContentId());
-        comment.setContentType(requestDto.getContentType());
+        comment.setContentType(Comment.normalizeContentType(requestDto.getContentType()));
         comment.setText(requestDto.getText());
         comment.setAuthor(author);
+        comment.setUpdatedAt(comment.getCreatedAt());
 
         if (requestDto.getParentCommentId() != null && !requestDto.getParentCommentId().isEmpty()) {
             Comment parentComment = commentRepository.findById(requestDto.getParentCommentId())
                     .orElseThrow(() -> new ResourceNotFoundException("Parent comment not found"));
-            comment = commentRepository.save(comment);
-            parentComment.getReplies().add(comment);
-            commentRepository.save(parentComment);
-            return convertToDto(comment);
+            if (!contentKey(parentComment).equals(contentKey(comment))) {
+                throw new BadRequestException("Parent comment belongs to different content");
+            }
+            comment.setParentId(parentComment.getId());
+            comment.setRootId(parentComment.getRootId());
+            comment.setPath(parentComment.getPath() + Comment.PATH_SEPARATOR + comment.getId());
+        } else {
+            comment.setRootId(comment.getId());
+            comment.setPath(comment.getId());
         }
 
         comment = commentRepository.save(comment);
-        return convertToDto(comment);
+        // Only once the comment is stored: the NOTIFY goes out when the surrounding
+        // transaction commits, so other nodes cannot reload the page before the insert.
+        evictContentComments(comment);
+        commentCounterService.increment(comment.getContentType(), comment.getContentId(), 1);
+        CommentDto.CommentResponseDto response = convertToDto(comment);
+        commentStreamBroadcaster.publish(comment.getContentType(), comment.getContentId(),
+                CommentStreamBroadcaster.CREATED, response);
+        return response;
     }
 
+    /**
+     * Returns the comment with its replies nested beneath it.
+     */
     public CommentDto.CommentResponseDto getById(String id) {
         Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + id));
-        return convertToDto(comment);
+        if (comment.getPath() == null) {
+            return convertToDto(comment);
+        }
+        List<Comment> thread = commentRepository.findThread(comment.getContentType(), comment.getContentId(),
+                "^" + comment.getPath());
+        return buildThreads(thread).get(0);
     }
 
-    public List<CommentDto.CommentResponseDto> getByContent(Long contentId, String contentType) {
-        List<Comment> comments = commentRepository.findByContentIdAndContentType(contentId, contentType);
-        return comments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    /**
+     * One page of top-level comments, newest first, each with its number of
+     * direct replies. Only the default first page is cached, since that is
+     * what nearly every reader of a busy content item asks for.
+     */
+    @Cacheable(cacheNames = CacheConfig.COMMENTS, key = "#contentType + ':' + #contentId",
+            condition = "#cursor == null && #limit == null", sync = true)
+    public CursorPageDto<CommentDto.CommentResponseDto> getPage(Long contentId, String contentType,
+                                                               String cursor, Integer limit) {
+        int pageSize = CursorUtil.normalizeLimit(limit);
+        List<Comment> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = commentRepository.findTopLevelFirstPage(contentType, contentId, CursorUtil.pageable(pageSize));
+        } else {
+            CursorUtil.DocumentCursor position = CursorUtil.decodeDocument(cursor);
+            rows = commentRepository.findTopLevelPageAfter(contentType, contentId, position.createdAt(),
+                    position.id(), CursorUtil.pageable(pageSize));
+        }
+        return withReplyCounts(contentType, contentId, CursorUtil.toPage(rows, pageSize, this::convertToDto,
+                comment -> CursorUtil.encode(comment.getCreatedAt(), comment.getId())));
+    }
+
+    /**
+     * One page of the direct replies to a comment, oldest first, each with its
+     * own reply count so clients can expand deeper levels on demand.
+     */
+    public CursorPageDto<CommentDto.CommentResponseDto> getReplies(String id, String cursor, Integer limit) {
+        Comment parent = commentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + id));
+        int pageSize = CursorUtil.normalizeLimit(limit);
+        List<Comment> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = commentRepository.findRepliesFirstPage(parent.getContentType(), parent.getContentId(), id,
+                    CursorUtil.pageable(pageSize));
+        } else {
+            CursorUtil.DocumentCursor position = CursorUtil.decodeDocument(cursor);
+            rows = commentRepository.findRepliesPageAfter(parent.getContentType(), parent.getContentId(), id,
+                    position.createdAt(), position.id(), CursorUtil.pageable(pageSize));
+        }
+        return withReplyCounts(parent.getContentType(), parent.getContentId(),
+                CursorUtil.toPage(rows, pageSize, this::convertToDto,
+                        comment -> CursorUtil.encode(comment.getCreatedAt(), comment.getId())));
     }
 
     @org.springframework.transaction.annotation.Transactional
@@ -55,17 +141,110 @@ public class CommentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + id));
 
         comment.setText(requestDto.getText());
+        comment.setUpdatedAt(LocalDateTime.now());
 
         comment = commentRepository.save(comment);
-        return convertToDto(comment);
+        evictContentComments(comment);
+        CommentDto.CommentResponseDto response = convertToDto(comment);
+        commentStreamBroadcaster.publish(comment.getContentType(), comment.getContentId(),
+                CommentStreamBroadcaster.UPDATED, response);
+        return response;
     }
 
+    /**
+     * Deletes the comment together with all of its replies.
+     */
     @org.springframework.transaction.annotation.Transactional
     public void delete(String id) {
-        if (!commentRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Comment not found with id: " + id);
+        Comment comment = commentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + id));
+        long deleted = 1;
+        if (comment.getPath() == null) {
+            commentRepository.deleteById(id);
+        } else {
+            deleted = commentRepository.deleteThread(comment.getContentType(), comment.getContentId(),
+                    "^" + comment.getPath());
         }
-        commentRepository.deleteById(id);
+        commentCounterService.increment(comment.getContentType(), comment.getContentId(), -deleted);
+        evictContentComments(comment);
+        commentStreamBroadcaster.publish(comment.getContentType(), comment.getContentId(),
+                CommentStreamBroadcaster.DELETED, convertToDto(comment));
+    }
+
+    /**
+     * Deletes every comment on a content item, {@code batchSize} at a time so
+     * no single delete holds the collection for long, then drops its counter
+     * and cached page.
+     *
+     * @return the number of comments deleted
+     */
+    public long deleteByContent(String contentType, Long contentId, int batchSize) {
+        long deleted = 0;
+        List<Comment> batch;
+        do {
+            batch = commentRepository.findIdsByContent(contentType, contentId, PageRequest.of(0, batchSize));
+            if (!batch.isEmpty()) {
+                commentRepository.deleteAllById(batch.stream().map(Comment::getId).collect(Collectors.toList()));
+                deleted += batch.size();
+            }
+        } while (batch.size() == batchSize);
+        commentCounterService.remove(contentType, contentId);
+        evictContentComments(contentType + ":" + contentId);
+        return deleted;
+    }
+
+    // One aggregation per page rather than one count per comment.
+    private CursorPageDto<CommentDto.CommentResponseDto> withReplyCounts(
+            String contentType, Long contentId, CursorPageDto<CommentDto.CommentResponseDto> page) {
+        if (page.getItems().isEmpty()) {
+            return page;
+        }
+        List<String> ids = page.getItems().stream()
+                .map(CommentDto.CommentResponseDto::getId)
+                .collect(Collectors.toList());
+        Map<String, Long> counts = commentRepository.countReplies(contentType, contentId, ids).stream()
+                .collect(Collectors.toMap(ReplyCount::id, ReplyCount::count));
+        page.getItems().forEach(comment -> comment.setReplyCount(counts.getOrDefault(comment.getId(), 0L)));
+        return page;
+    }
+
+    private void evictContentComments(Comment comment) {
+        evictContentComments(contentKey(comment));
+    }
+
+    private void evictContentComments(String key) {
+        Cache cache = cacheManager.getCache(CacheConfig.COMMENTS);
+        if (cache != null) {
+            cache.evict(key);
+        }
+        cacheInvalidationBus.publish(CacheConfig.COMMENTS, key);
+    }
+
+    private static String contentKey(Comment comment) {
+        return comment.getContentType() + ":" + comment.getContentId();
+    }
+
+    // Comments arrive sorted by path, so every parent is seen before its replies
+    // and one pass nests them. A reply whose parent is missing becomes a root.
+    private List<CommentDto.CommentResponseDto> buildThreads(List<Comment> comments) {
+        Map<String, CommentDto.CommentResponseDto> byId = new HashMap<>(comments.size() * 2);
+        List<CommentDto.CommentResponseDto> roots = new ArrayList<>();
+        for (Comment comment : comments) {
+            CommentDto.CommentResponseDto dto = convertToDto(comment);
+            byId.put(comment.getId(), dto);
+            CommentDto.CommentResponseDto parent = comment.getParentId() != null
+                    ? byId.get(comment.getParentId())
+                    : null;
+            if (parent == null) {
+                roots.add(dto);
+            } else {
+                if (parent.getReplies() == null) {
+                    parent.setReplies(new ArrayList<>());
+                }
+                parent.getReplies().add(dto);
+            }
+        }
+        return roots;
     }
 
     private CommentDto.CommentResponseDto convertToDto(Comment comment) {
@@ -75,14 +254,9 @@ public class CommentService {
         dto.setContentType(comment.getContentType());
         dto.setText(comment.getText());
         dto.setAuthor(comment.getAuthor());
+        dto.setParentId(comment.getParentId());
         dto.setCreatedAt(comment.getCreatedAt());
-
-        if (comment.getReplies() != null && !comment.getReplies().isEmpty()) {
-            dto.setReplies(comment.getReplies().stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList()));
-        }
-
+        dto.setUpdatedAt(comment.getUpdatedAt());
         return dto;
     }
 }
@@ -0,0 +1,259 @@
+package com.cms.service;
+
+import com.cms.config.CacheConfig;
+import com.cms.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes comment changes to Server-Sent Events subscribers of one content
+ * item, keyed {@code contentType:contentId}.
+ * <p>
+ * An idle subscriber is only an open async request and a small queue; no
+ * thread is held. Publishing appends to each subscriber's bounded queue and,
+ * if it is not already being drained, hands the queue to a dedicated bounded
+ * pool. A subscriber whose queue is full, or whose drain the pool rejects, is
+ * disconnected, so one stalled client cannot hold memory or delay the others;
+ * EventSource clients reconnect and reload the first page. Browsers pass
+ * their JWT as the {@code access_token} query parameter, since EventSource
+ * cannot send an Authorization header; once it expires the reconnect is
+ * refused and the client opens a new stream with a fresh token.
+ * Heartbeats go through the same queue, which also detects clients that
+ * have stopped reading. Changes made on other nodes arrive as comment cache
+ * invalidations and are forwarded as {@code refresh} events without a body.
+ */
+@Service
+public class CommentStreamBroadcaster implements CacheInvalidationListener {
+    public static final String CREATED = "comment-created";
+    public static final String UPDATED = "comment-updated";
+    public static final String DELETED = "comment-deleted";
+    public static final String REFRESH = "refresh";
+
+    private static final Event HEARTBEAT = new Event(null, null);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cms.comments.stream.pool-size:16}")
+    private int poolSize;
+
+    @Value("${cms.comments.stream.queue-capacity:20000}")
+    private int queueCapacity;
+
+    @Value("${cms.comments.stream.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${cms.comments.stream.timeout:1800000}")
+    private long timeout;
+
+    @Value("${cms.comments.stream.max-subscribers:50000}")
+    private int maxSubscribers;
+
+    @Value("${cms.comments.stream.heartbeat-interval:15000}")
+    private long heartbeatInterval;
+
+    private final Map<String, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    // Sends block on the socket, so streams get their own bounded pool: stalled
+    // clients can only pin these threads, and a full queue rejects the drain
+    // instead of growing without limit. Built here rather than declared as a
+    // bean so Boot still creates the shared applicationTaskExecutor.
+    private TaskExecutor taskExecutor;
+
+    // Not the shared @Scheduled thread: the counter reconcile and the orphan
+    // sweep hold that one for minutes, long enough for proxies to time out
+    // idle streams.
+    private ThreadPoolTaskScheduler heartbeatScheduler;
+
+    @PostConstruct
+    public void init() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("comment-stream-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        taskExecutor = executor;
+        heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setThreadNamePrefix("comment-stream-heartbeat-");
+        heartbeatScheduler.initialize();
+        heartbeatScheduler.scheduleAtFixedRate(this::heartbeat, Duration.ofMillis(heartbeatInterval));
+        Gauge.builder("cms.comments.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        topics.values().forEach(subscribers -> subscribers.forEach(this::disconnect));
+        if (heartbeatScheduler != null) {
+            heartbeatScheduler.shutdown();
+        }
+        if (taskExecutor instanceof ThreadPoolTaskExecutor executor) {
+            executor.shutdown();
+        }
+    }
+
+    public SseEmitter subscribe(String contentType, Long contentId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceUnavailableException("Too many live comment subscribers, please retry later");
+        }
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(key(contentType, contentId), emitter, bufferSize);
+        topics.compute(subscriber.key, (key, subscribers) -> {
+            Set<Subscriber> topic = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            topic.add(subscriber);
+            return topic;
+        });
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        // Commits the response headers so the client sees the stream open.
+        enqueue(subscriber, HEARTBEAT);
+        return emitter;
+    }
+
+    public void publish(String contentType, Long contentId, String name, Object data) {
+        broadcast(key(contentType, contentId), new Event(name, data));
+    }
+
+    public void heartbeat() {
+        topics.values().forEach(subscribers -> subscribers.forEach(subscriber -> enqueue(subscriber, HEARTBEAT)));
+    }
+
+    @Override
+    public void onInvalidate(String cacheName, Object key) {
+        if (CacheConfig.COMMENTS.equals(cacheName) && key instanceof String topic) {
+            broadcast(topic, new Event(REFRESH, null));
+        }
+    }
+
+    @Override
+    public void onFlush() {
+        Event event = new Event(REFRESH, null);
+        topics.values().forEach(subscribers -> subscribers.forEach(subscriber -> enqueue(subscriber, event)));
+    }
+
+    int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void broadcast(String key, Event event) {
+        Set<Subscriber> subscribers = topics.get(key);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> enqueue(subscriber, event));
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Event event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            meterRegistry.counter("cms.comments.stream.dropped").increment();
+            disconnect(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                taskExecutor.execute(() -> drain(subscriber));
+            } catch (TaskRejectedException e) {
+                meterRegistry.counter("cms.comments.stream.rejected").increment();
+                subscriber.draining.set(false);
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    // Runs on the executor, at most once per subscriber at a time. The flag is
+    // re-checked after being cleared in case an event arrived in between.
+    private void drain(Subscriber subscriber) {
+        do {
+            try {
+                Event event;
+                while (!subscriber.closed.get() && (event = subscriber.queue.poll()) != null) {
+                    subscriber.emitter.send(event.toSse());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client has gone; the container completes the request.
+                remove(subscriber);
+                return;
+            } finally {
+                subscriber.draining.set(false);
+            }
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscriber.queue.clear();
+        topics.computeIfPresent(subscriber.key, (key, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        subscriberCount.decrementAndGet();
+        return true;
+    }
+
+    private static String key(String contentType, Long contentId) {
+        return contentType + ":" + contentId;
+    }
+
+    private static final class Subscriber {
+        private final String key;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(String key, SseEmitter emitter, int bufferSize) {
+            this.key = key;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    // Built per send: an SseEventBuilder cannot be reused once built.
+    private record Event(String name, Object data) {
+        private SseEmitter.SseEventBuilder toSse() {
+            if (name == null) {
+                return SseEmitter.event().comment("");
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(name);
+            return data != null ? event.data(data, MediaType.APPLICATION_JSON) : event.data("");
+        }
+    }
+}
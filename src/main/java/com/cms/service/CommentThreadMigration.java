@@ -0,0 +1,188 @@
+package com.cms.service;
+
+import com.cms.model.document.Comment;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Moves comments written before threads were stored flat onto the
+ * materialized-path layout.
+ * <p>
+ * Replies used to be saved as their own document and then copied into the
+ * parent's {@code replies} array. The standalone documents are kept and the
+ * copies dropped: each copy only contributes its parent link, because it may
+ * be stale or belong to a reply that has since been deleted. Paths are then
+ * derived one content item at a time. Comments saved without {@code updatedAt}
+ * get their {@code createdAt}, so their validators stay stable across reads,
+ * and content types are stored in their normalized upper-case form, which is
+ * what reads and the orphan sweep look up. Runs at startup, before the web
+ * server accepts requests, on the one node that takes its lease. Completion is
+ * recorded in {@code job_locks}, so later startups skip the collection scans.
+ */
+@Service
+public class CommentThreadMigration {
+    private static final String COLLECTION = "comments";
+    private static final String JOB = "comment-thread-migration";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ScheduledJobLock scheduledJobLock;
+
+    @Value("${cms.comments.migrate-threads-on-startup:true}")
+    private boolean enabled;
+
+    @Value("${cms.comments.migrate-threads-lock-lease:600000}")
+    private long lockLease;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled || scheduledJobLock.isCompleted(JOB)) {
+            return;
+        }
+        // A node starting alongside the one that holds the lease serves the old
+        // layout until that node finishes; both layouts are readable meanwhile.
+        if (scheduledJobLock.tryAcquire(JOB, Duration.ofMillis(lockLease))) {
+            migrate();
+            scheduledJobLock.markCompleted(JOB);
+        }
+    }
+
+    /**
+     * @return the number of comments that were given a path
+     */
+    public int migrate() {
+        normalizeContentTypes();
+        linkEmbeddedReplies();
+        int migrated = 0;
+        Aggregation contentItems = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("path").exists(false)),
+                Aggregation.group("contentType", "contentId"));
+        for (Document item : mongoTemplate.aggregate(contentItems, COLLECTION, Document.class)) {
+            Document key = item.get("_id", Document.class);
+            migrated += assignPaths(key.getString("contentType"), key.get("contentId"));
+        }
+        return migrated;
+    }
+
+    // Before paths are assigned, so a thread written under mixed spellings is
+    // grouped as one content item. Counters follow on their next reconcile.
+    private void normalizeContentTypes() {
+        mongoTemplate.updateMulti(new Query(Criteria.where("contentType").regex("[a-z]|^\\s|\\s$")),
+                AggregationUpdate.update().set("contentType").toValue(
+                        StringOperators.valueOf(StringOperators.valueOf("contentType").trim()).toUpper()),
+                COLLECTION);
+    }
+
+    private void linkEmbeddedReplies() {
+        Query withReplies = new Query(Criteria.where("replies.0").exists(true));
+        withReplies.fields().include("replies");
+        try (Stream<Document> parents = mongoTemplate.stream(withReplies, Document.class, COLLECTION)) {
+            parents.forEach(parent -> linkReplies(parent.get("_id"), parent.getList("replies", Document.class)));
+        }
+        mongoTemplate.updateMulti(new Query(Criteria.where("replies").exists(true)),
+                new Update().unset("replies"), COLLECTION);
+        mongoTemplate.updateMulti(new Query(Criteria.where("updatedAt").exists(false).and("createdAt").exists(true)),
+                AggregationUpdate.update().set("updatedAt").toValueOf(Fields.field("createdAt")), COLLECTION);
+    }
+
+    private void linkReplies(Object parentId, List<Document> replies) {
+        if (replies == null) {
+            return;
+        }
+        for (Document reply : replies) {
+            Object replyId = reply.get("_id");
+            if (replyId == null) {
+                continue;
+            }
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(replyId).and("parentId").exists(false)),
+                    new Update().set("parentId", idString(parentId)), COLLECTION);
+            linkReplies(replyId, reply.getList("replies", Document.class));
+        }
+    }
+
+    private int assignPaths(String contentType, Object contentId) {
+        Query thread = new Query(Criteria.where("contentType").is(contentType).and("contentId").is(contentId));
+        thread.fields().include("parentId").include("rootId").include("path");
+        Map<String, Document> byId = new HashMap<>();
+        for (Document comment : mongoTemplate.find(thread, Document.class, COLLECTION)) {
+            byId.put(idString(comment.get("_id")), comment);
+        }
+
+        List<Document> pathless = byId.values().stream()
+                .filter(comment -> comment.getString("path") == null)
+                .collect(Collectors.toList());
+        if (pathless.isEmpty()) {
+            return 0;
+        }
+        pathless.forEach(comment -> resolve(comment, byId));
+
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+        for (Document comment : pathless) {
+            Update update = new Update()
+                    .set("path", comment.getString("path"))
+                    .set("rootId", comment.getString("rootId"));
+            if (comment.getString("parentId") == null) {
+                update.unset("parentId");
+            }
+            updates.updateOne(new Query(Criteria.where("_id").is(comment.get("_id"))), update);
+        }
+        updates.execute();
+        return pathless.size();
+    }
+
+    // Walks up to the nearest ancestor that already has a path, then fills in
+    // paths on the way back down. Iterative so deep threads cannot overflow the
+    // stack. Replies whose parent no longer exists become roots.
+    private static void resolve(Document comment, Map<String, Document> byId) {
+        Deque<Document> chain = new ArrayDeque<>();
+        Document current = comment;
+        while (current != null && current.getString("path") == null) {
+            chain.push(current);
+            String parentId = current.getString("parentId");
+            current = parentId != null ? byId.get(parentId) : null;
+        }
+        Document ancestor = current;
+        while (!chain.isEmpty()) {
+            Document next = chain.pop();
+            String id = idString(next.get("_id"));
+            if (ancestor == null) {
+                next.remove("parentId");
+                next.put("rootId", id);
+                next.put("path", id);
+            } else {
+                next.put("rootId", ancestor.getString("rootId"));
+                next.put("path", ancestor.getString("path") + Comment.PATH_SEPARATOR + id);
+            }
+            ancestor = next;
+        }
+    }
+
+    private static String idString(Object id) {
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+}
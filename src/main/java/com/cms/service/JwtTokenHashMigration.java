@@ -0,0 +1,135 @@
+package com.cms.service;
+
+import com.cms.util.TokenHashUtil;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Moves sessions issued before tokens were stored hashed onto
+ * {@code tokenHash}, so they keep working after the upgrade.
+ * <p>
+ * Each document that still carries the raw {@code token} gets its SHA-256
+ * digest and loses the token. A legacy document whose digest is already
+ * stored, or that has no token at all, cannot be looked up and is removed.
+ * Once every document has a digest, the unique index on {@code tokenHash}
+ * replaces the sparse one that let legacy documents coexist with it. The
+ * index is created here rather than declared on the document, because Mongo
+ * rejects a declaration whose options differ from the existing index. Runs at
+ * startup on the one node that takes its lease; completion is recorded in
+ * {@code job_locks}.
+ */
+@Service
+public class JwtTokenHashMigration {
+    static final String INDEX_NAME = "tokenHash";
+
+    private static final String COLLECTION = "jwt_tokens";
+    private static final String JOB = "jwt-token-hash-backfill";
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ScheduledJobLock scheduledJobLock;
+
+    @Value("${spring.security.jwt.backfill-on-startup:true}")
+    private boolean enabled;
+
+    @Value("${spring.security.jwt.backfill-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${spring.security.jwt.backfill-lock-lease:600000}")
+    private long lockLease;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled || scheduledJobLock.isCompleted(JOB)) {
+            return;
+        }
+        if (scheduledJobLock.tryAcquire(JOB, Duration.ofMillis(lockLease))) {
+            migrate();
+            scheduledJobLock.markCompleted(JOB);
+        }
+    }
+
+    /**
+     * @return the number of documents that were given a digest
+     */
+    public int migrate() {
+        int migrated = backfill();
+        mongoTemplate.remove(new Query(Criteria.where("tokenHash").exists(false)), COLLECTION);
+        replaceIndex();
+        return migrated;
+    }
+
+    private int backfill() {
+        Query legacy = new Query(Criteria.where("token").exists(true)).with(Sort.by("_id"));
+        legacy.fields().include("token");
+        legacy.cursorBatchSize(batchSize);
+        int migrated = 0;
+        try (Stream<Document> documents = mongoTemplate.stream(legacy, Document.class, COLLECTION)) {
+            BulkOperations updates = null;
+            int pending = 0;
+            for (Document document : (Iterable<Document>) documents::iterator) {
+                if (updates == null) {
+                    updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+                }
+                Update update = new Update().unset("token");
+                String token = document.getString("token");
+                if (token != null) {
+                    update.set("tokenHash", TokenHashUtil.sha256(token));
+                }
+                updates.updateOne(new Query(Criteria.where("_id").is(document.get("_id"))), update);
+                if (++pending == batchSize) {
+                    migrated += execute(updates);
+                    updates = null;
+                    pending = 0;
+                }
+            }
+            if (updates != null) {
+                migrated += execute(updates);
+            }
+        }
+        return migrated;
+    }
+
+    // A digest that is already stored belongs to the same token, so the update
+    // that collides with it is skipped and its document removed afterwards.
+    private int execute(BulkOperations updates) {
+        try {
+            return updates.execute().getModifiedCount();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+            return e.getResult().getModifiedCount();
+        }
+    }
+
+    private void replaceIndex() {
+        IndexOperations indexOps = mongoTemplate.indexOps(COLLECTION);
+        for (IndexInfo index : indexOps.getIndexInfo()) {
+            if (index.isIndexForFields(List.of("tokenHash")) && (index.isSparse() || !index.isUnique())) {
+                indexOps.dropIndex(index.getName());
+            }
+        }
+        indexOps.ensureIndex(new Index().on("tokenHash", Sort.Direction.ASC).unique().named(INDEX_NAME));
+    }
+}
@@ -1,57 +1,363 @@
 package com.cms.service;
 
 import com.cms.model.document.JwtToken;
+import com.cms.model.document.TokenType;
 import com.cms.repository.JwtTokenRepository;
 import com.cms.security.JwtTokenProvider;
+import com.cms.util.TokenHashUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.stereotype.Service;
 
+import java.security.SecureRandom;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
-public class JwtTokenService {
+public class JwtTokenService implements CacheInvalidationListener {
+    static final String REVOKED_TOKENS = "jwtRevokedTokens";
+    static final String REVOKED_USERS = "jwtRevokedUsers";
+
     @Autowired
     private JwtTokenRepository jwtTokenRepository;
 
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    // Lazy because the bus is itself injected with every listener, this one included.
+    @Autowired
+    @Lazy
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${spring.security.jwt.expiration}")
+    private long jwtExpiration;
+
+    @Value("${spring.security.jwt.refresh.enabled:false}")
+    private boolean refreshTokensEnabled;
+
+    @Value("${spring.security.jwt.refresh.expiration:2592000000}")
+    private long refreshTokenExpiration;
+
+    @Value("${spring.security.jwt.async-write:false}")
+    private boolean asyncWrite;
+
+    @Value("${spring.security.jwt.cache.maximum-size:100000}")
+    private long cacheMaximumSize;
+
+    @Value("${spring.security.jwt.cache.ttl:300000}")
+    private long cacheTtl;
+
+    @Value("${spring.security.jwt.cache.denylist-size:10000}")
+    private long denylistMaximumSize;
+
+    private Cache<String, CachedToken> validTokens;
+
+    private Cache<String, Long> revokedTokens;
+
+    private Cache<Long, Long> revokedUsers;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @PostConstruct
+    public void init() {
+        validTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new Expiry<String, CachedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, CachedToken entry, long currentTime) {
+                        return untilExpiry(entry.expiresAt, cacheTtl);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, CachedToken entry, long currentTime, long currentDuration) {
+                        return untilExpiry(entry.expiresAt, cacheTtl);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, CachedToken entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        revokedTokens = Caffeine.newBuilder()
+                .maximumSize(denylistMaximumSize)
+                .expireAfter(new Expiry<String, Long>() {
+                    @Override
+                    public long expireAfterCreate(String token, Long expiresAt, long currentTime) {
+                        return untilExpiry(expiresAt, jwtExpiration);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Long expiresAt, long currentTime, long currentDuration) {
+                        return untilExpiry(expiresAt, jwtExpiration);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Long expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        revokedUsers = Caffeine.newBuilder()
+                .maximumSize(denylistMaximumSize)
+                .expireAfterWrite(jwtExpiration, TimeUnit.MILLISECONDS)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, validTokens, "jwtTokens");
+        CaffeineCacheMetrics.monitor(meterRegistry, revokedTokens, "jwtTokenDenylist");
+    }
+
     public void saveToken(String token, Long userId) {
         try {
             Date expirationDate = jwtTokenProvider.getExpirationDateFromToken(token);
             LocalDateTime expiresAt = new java.sql.Timestamp(expirationDate.getTime()).toLocalDateTime();
 
             JwtToken jwtToken = new JwtToken();
-            jwtToken.setToken(token);
+            jwtToken.setTokenHash(TokenHashUtil.sha256(token));
             jwtToken.setUserId(userId);
             jwtToken.setExpiresAt(expiresAt);
 
-            jwtTokenRepository.save(jwtToken);
+            if (asyncWrite) {
+                saveTokenAsync(token, jwtToken, expirationDate.getTime());
+            } else {
+                jwtTokenRepository.save(jwtToken);
+            }
         } catch (Exception e) {
             throw new RuntimeException("Failed to save JWT token", e);
         }
     }
 
+    private void saveTokenAsync(String token, JwtToken jwtToken, long expiresAt) {
+        // The issuing node accepts the token from its cache until the write lands;
+        // other nodes fall back to Mongo and only see it once the write completes.
+        validTokens.put(token, new CachedToken(jwtToken.getUserId(), expiresAt, System.currentTimeMillis()));
+        taskExecutor.execute(() -> {
+            try {
+                jwtTokenRepository.save(jwtToken);
+            } catch (RuntimeException e) {
+                validTokens.invalidate(token);
+                meterRegistry.counter("cms.jwt.async_write.failures").increment();
+            }
+        });
+    }
+
+    public boolean isRefreshTokensEnabled() {
+        return refreshTokensEnabled;
+    }
+
+    public String createRefreshToken(Long userId) {
+        byte[] randomBytes = new byte[32];
+        secureRandom.nextBytes(randomBytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+
+        JwtToken jwtToken = new JwtToken();
+        jwtToken.setTokenHash(TokenHashUtil.sha256(refreshToken));
+        jwtToken.setUserId(userId);
+        jwtToken.setType(TokenType.REFRESH);
+        jwtToken.setExpiresAt(LocalDateTime.now().plus(refreshTokenExpiration, ChronoUnit.MILLIS));
+
+        jwtTokenRepository.save(jwtToken);
+        return refreshToken;
+    }
+
+    public Long consumeRefreshToken(String refreshToken) {
+        Query query = new Query(Criteria.where("tokenHash").is(TokenHashUtil.sha256(refreshToken))
+                .and("type").is(TokenType.REFRESH));
+        JwtToken jwtToken = mongoTemplate.findAndRemove(query, JwtToken.class);
+
+        if (jwtToken == null || jwtToken.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new CredentialsExpiredException("Invalid or expired refresh token");
+        }
+        return jwtToken.getUserId();
+    }
+
     public boolean isTokenValid(String token) {
-        if (!jwtTokenProvider.validateToken(token)) {
+        return jwtTokenProvider.validateToken(token) && isTokenActive(token);
+    }
+
+    public boolean isTokenActive(String token, Claims claims) {
+        if (!refreshTokensEnabled) {
+            return isTokenActive(token);
+        }
+        if (claims.getId() != null && revokedTokens.getIfPresent(claims.getId()) != null) {
             return false;
         }
-        return jwtTokenRepository.findByToken(token).isPresent();
+
+        Long userId = jwtTokenProvider.getUserId(claims);
+        Long revokedAt = userId != null ? revokedUsers.getIfPresent(userId) : null;
+        // iat only has whole seconds, so it is compared with the second of the
+        // revocation: a token issued right after it, e.g. by the login that
+        // follows a password change, stays valid, at the cost of also keeping
+        // one issued earlier within that same second.
+        return revokedAt == null || claims.getIssuedAt().getTime() >= revokedAt / 1000 * 1000;
+    }
+
+    public boolean isTokenActive(String token) {
+        if (revokedTokens.getIfPresent(token) != null) {
+            return false;
+        }
+
+        CachedToken cached = validTokens.getIfPresent(token);
+        if (cached != null) {
+            if (!isRevokedForUser(cached)) {
+                return true;
+            }
+            validTokens.invalidate(token);
+        }
+
+        long lookupStartedAt = System.currentTimeMillis();
+        Optional<JwtToken> storedToken = jwtTokenRepository.findByTokenHash(TokenHashUtil.sha256(token));
+        if (storedToken.isEmpty()) {
+            return false;
+        }
+
+        JwtToken jwtToken = storedToken.get();
+        CachedToken entry = new CachedToken(jwtToken.getUserId(),
+                Timestamp.valueOf(jwtToken.getExpiresAt()).getTime(), lookupStartedAt);
+        if (entry.expiresAt > System.currentTimeMillis() && !isRevokedForUser(entry)) {
+            validTokens.put(token, entry);
+        }
+        return true;
     }
 
     public void revokeToken(String token) {
-        jwtTokenRepository.deleteByToken(token);
+        if (refreshTokensEnabled) {
+            revokeAccessToken(token);
+            return;
+        }
+
+        jwtTokenRepository.deleteByTokenHash(TokenHashUtil.sha256(token));
+
+        CachedToken cached = validTokens.getIfPresent(token);
+        Long expiresAt = cached != null ? cached.expiresAt : expirationOf(token);
+        if (expiresAt != null) {
+            revokedTokens.put(token, expiresAt);
+        }
+        validTokens.invalidate(token);
     }
 
     public void revokeAllUserTokens(Long userId) {
         jwtTokenRepository.deleteByUserId(userId);
+
+        long revokedAt = System.currentTimeMillis();
+        denyUser(userId, revokedAt);
+        cacheInvalidationBus.publish(REVOKED_USERS, userId + ":" + revokedAt);
     }
 
-    @Scheduled(fixedRate = 3600000)
-    public void cleanupExpiredTokens() {
-        jwtTokenRepository.deleteByExpiresAtBefore(LocalDateTime.now());
+    public void revokeRefreshToken(String refreshToken) {
+        jwtTokenRepository.deleteByTokenHash(TokenHashUtil.sha256(refreshToken));
+    }
+
+    private void revokeAccessToken(String token) {
+        try {
+            Claims claims = jwtTokenProvider.parseClaims(token);
+            if (claims.getId() != null) {
+                long expiresAt = claims.getExpiration().getTime();
+                revokedTokens.put(claims.getId(), expiresAt);
+                cacheInvalidationBus.publish(REVOKED_TOKENS, claims.getId() + ":" + expiresAt);
+            }
+        } catch (Exception e) {
+            // An expired or malformed access token is already unusable.
+        }
     }
-}
 
+    /**
+     * Applies revocations made on other nodes. Denied jtis and user revocations
+     * are only kept in memory, so they have to reach every node that may see
+     * the token.
+     */
+    @Override
+    public void onInvalidate(String cacheName, Object key) {
+        if (!REVOKED_TOKENS.equals(cacheName) && !REVOKED_USERS.equals(cacheName)) {
+            return;
+        }
+        String value = String.valueOf(key);
+        int separator = value.lastIndexOf(':');
+        try {
+            long at = Long.parseLong(value.substring(separator + 1));
+            if (REVOKED_USERS.equals(cacheName)) {
+                denyUser(Long.valueOf(value.substring(0, separator)), at);
+            } else {
+                revokedTokens.put(value.substring(0, separator), at);
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            meterRegistry.counter("cms.jwt.revocation.malformed").increment();
+        }
+    }
+
+    // Revocations published while this node was not listening are lost. Cached
+    // stored tokens are dropped so they are checked against Mongo again; a missed
+    // revocation of a stateless access token lasts until the token expires.
+    @Override
+    public void onFlush() {
+        validTokens.invalidateAll();
+    }
+
+    private void denyUser(Long userId, long revokedAt) {
+        revokedUsers.asMap().merge(userId, revokedAt, Math::max);
+        validTokens.asMap().values().removeIf(entry -> userId.equals(entry.userId));
+    }
+
+    private boolean isRevokedForUser(CachedToken entry) {
+        Long revokedAt = revokedUsers.getIfPresent(entry.userId);
+        return revokedAt != null && entry.loadedAt <= revokedAt;
+    }
+
+    private Long expirationOf(String token) {
+        try {
+            return jwtTokenProvider.getExpirationDateFromToken(token).getTime();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static long untilExpiry(long expiresAt, long maxTtl) {
+        long remaining = Math.min(expiresAt - System.currentTimeMillis(), maxTtl);
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+    }
+
+    private static final class CachedToken {
+        private final Long userId;
+        private final long expiresAt;
+        private final long loadedAt;
+
+        private CachedToken(Long userId, long expiresAt, long loadedAt) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -1,47 +1,128 @@
 package com.cms.service;
 
+import com.cms.config.CacheConfig;
+import com.cms.dto.CursorPageDto;
+import com.cms.dto.ImportDto;
 import com.cms.dto.PodcastDto;
 import com.cms.exception.ResourceNotFoundException;
 import com.cms.model.entity.Podcast;
 import com.cms.repository.PodcastRepository;
+import com.cms.repository.projection.ContentVersion;
+import com.cms.repository.projection.PodcastEpisode;
+import com.cms.util.CursorUtil;
+import com.cms.util.PartialUpdate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PodcastService {
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     @Autowired
     private PodcastRepository podcastRepository;
 
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private TitleSearchService titleSearchService;
+
+    @Autowired
+    private CommentCleanupService commentCleanupService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Transactional
     public PodcastDto.PodcastResponseDto create(PodcastDto.PodcastRequestDto requestDto) {
-        Podcast podcast = new Podcast();
-        podcast.setTitle(requestDto.getTitle());
-        podcast.setAudioUrl(requestDto.getAudioUrl());
-        podcast.setEpisodes(requestDto.getEpisodes() != null
-                ? new ArrayList<>(requestDto.getEpisodes())
-                : new ArrayList<>());
-
-        podcast = podcastRepository.save(podcast);
+        Podcast podcast = podcastRepository.save(newPodcast(requestDto));
+        // Other nodes add the new title to their search index on this message.
+        cacheInvalidationBus.publish(CacheConfig.PODCASTS, podcast.getId());
+        titleSearchService.index(TitleSearchIndex.ContentType.PODCAST, podcast.getId(), podcast.getTitle());
         return convertToDto(podcast);
     }
 
+    /**
+     * Imports one podcast per NDJSON line. Each chunk commits on its own; see
+     * {@link BulkImportService}. Episode rows go out in the same JDBC batches
+     * as their podcasts when the chunk is flushed.
+     */
+    public ImportDto.ImportResultDto importNdjson(InputStream in, Integer chunkSize) {
+        return bulkImportService.importNdjson(in, chunkSize, PodcastDto.PodcastRequestDto.class,
+                this::newPodcast, this::onImported);
+    }
+
+    public ContentVersion getVersion(Long id) {
+        return podcastRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Podcast not found with id: " + id));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PODCASTS, key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public PodcastDto.PodcastResponseDto getById(Long id) {
         Podcast podcast = podcastRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Podcast not found with id: " + id));
         return convertToDto(podcast);
     }
 
-    public List<PodcastDto.PodcastResponseDto> getAll() {
-        return podcastRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPageDto<PodcastDto.PodcastResponseDto> getPage(String cursor, Integer limit) {
+        int pageSize = CursorUtil.normalizeLimit(limit);
+        List<Podcast> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = podcastRepository.findFirstPage(CursorUtil.pageable(pageSize));
+        } else {
+            CursorUtil.Cursor position = CursorUtil.decode(cursor);
+            rows = podcastRepository.findPageAfter(position.createdAt(), position.id(), CursorUtil.pageable(pageSize));
+        }
+        return CursorUtil.toPage(rows, pageSize, this::convertToDto,
+                podcast -> CursorUtil.encode(podcast.getCreatedAt(), podcast.getId()));
+    }
+
+    /**
+     * Streams every podcast updated at or after {@code updatedSince} (all of
+     * them when null) to {@code sink} in id order. Rows are detached as they
+     * are read so the persistence context stays empty however large the
+     * catalogue is.
+     */
+    @Transactional(readOnly = true)
+    public void export(LocalDateTime updatedSince, Consumer<PodcastDto.PodcastResponseDto> sink) {
+        // Episodes are loaded per chunk rather than per podcast, so the export
+        // costs one extra query per EXPORT_CHUNK_SIZE rows instead of one per row.
+        List<Podcast> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        try (Stream<Podcast> rows = podcastRepository.streamForExport(updatedSince)) {
+            rows.forEach(podcast -> {
+                entityManager.detach(podcast);
+                chunk.add(podcast);
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    exportChunk(chunk, sink);
+                    chunk.clear();
+                }
+            });
+        }
+        if (!chunk.isEmpty()) {
+            exportChunk(chunk, sink);
+        }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PODCASTS, key = "#id")
     @Transactional
     public PodcastDto.PodcastResponseDto update(Long id, PodcastDto.PodcastRequestDto requestDto) {
         Podcast podcast = podcastRepository.findById(id)
@@ -49,29 +130,142 @@ public class PodcastService {
 
         podcast.setTitle(requestDto.getTitle());
         podcast.setAudioUrl(requestDto.getAudioUrl());
-        podcast.setEpisodes(requestDto.getEpisodes() != null
-                ? new ArrayList<>(requestDto.getEpisodes())
-                : new ArrayList<>());
+        replaceEpisodes(podcast, requestDto.getEpisodes() != null ? requestDto.getEpisodes() : List.of());
+
+        // Flush now so the returned version and updatedAt reflect this write.
+        podcast = podcastRepository.saveAndFlush(podcast);
+        cacheInvalidationBus.publish(CacheConfig.PODCASTS, id);
+        titleSearchService.index(TitleSearchIndex.ContentType.PODCAST, id, podcast.getTitle());
+        return convertToDto(podcast);
+    }
 
-        podcast = podcastRepository.save(podcast);
+    /**
+     * Applies the non-null fields of {@code patchDto}; only changed columns
+     * are written, and only episode positions that differ touch podcast_episodes.
+     */
+    @CacheEvict(cacheNames = CacheConfig.PODCASTS, key = "#id")
+    @Transactional
+    public PodcastDto.PodcastResponseDto patch(Long id, PodcastDto.PodcastPatchDto patchDto) {
+        Podcast podcast = applyPatch(id, patchDto);
         return convertToDto(podcast);
     }
 
+    /**
+     * Same as {@link #patch} but, unless episodes change, issues a single
+     * UPDATE without reading the row first. The episode diff needs the
+     * current set, so that case still loads the podcast.
+     */
+    @CacheEvict(cacheNames = CacheConfig.PODCASTS, key = "#id")
+    @Transactional
+    public void patchWithoutReading(Long id, PodcastDto.PodcastPatchDto patchDto) {
+        if (patchDto.getEpisodes() != null) {
+            applyPatch(id, patchDto);
+            return;
+        }
+        int updated = PartialUpdate.of(entityManager, Podcast.class)
+                .set("title", patchDto.getTitle())
+                .set("audioUrl", patchDto.getAudioUrl())
+                .execute(id);
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Podcast not found with id: " + id);
+        }
+        cacheInvalidationBus.publish(CacheConfig.PODCASTS, id);
+        if (patchDto.getTitle() != null) {
+            titleSearchService.index(TitleSearchIndex.ContentType.PODCAST, id, patchDto.getTitle());
+        }
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PODCASTS, key = "#id")
     @Transactional
     public void delete(Long id) {
         if (!podcastRepository.existsById(id)) {
             throw new ResourceNotFoundException("Podcast not found with id: " + id);
         }
         podcastRepository.deleteById(id);
+        cacheInvalidationBus.publish(CacheConfig.PODCASTS, id);
+        titleSearchService.remove(TitleSearchIndex.ContentType.PODCAST, id);
+        commentCleanupService.deleteForContent(TitleSearchIndex.ContentType.PODCAST, id);
+    }
+
+    private Podcast applyPatch(Long id, PodcastDto.PodcastPatchDto patchDto) {
+        Podcast podcast = podcastRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Podcast not found with id: " + id));
+
+        if (patchDto.getTitle() != null) {
+            podcast.setTitle(patchDto.getTitle());
+        }
+        if (patchDto.getAudioUrl() != null) {
+            podcast.setAudioUrl(patchDto.getAudioUrl());
+        }
+        if (patchDto.getEpisodes() != null) {
+            replaceEpisodes(podcast, patchDto.getEpisodes());
+        }
+
+        podcast = podcastRepository.saveAndFlush(podcast);
+        cacheInvalidationBus.publish(CacheConfig.PODCASTS, id);
+        titleSearchService.index(TitleSearchIndex.ContentType.PODCAST, id, podcast.getTitle());
+        return podcast;
+    }
+
+    // Edits the managed list in place rather than replacing it. Hibernate
+    // compares an indexed list with its snapshot position by position, so only
+    // positions whose episode changed are updated, new ones at the end are
+    // inserted and a shortened tail is deleted.
+    private static void replaceEpisodes(Podcast podcast, List<String> episodes) {
+        List<String> current = podcast.getEpisodes();
+        for (int i = 0; i < episodes.size(); i++) {
+            if (i == current.size()) {
+                current.add(episodes.get(i));
+            } else if (!Objects.equals(current.get(i), episodes.get(i))) {
+                current.set(i, episodes.get(i));
+            }
+        }
+        while (current.size() > episodes.size()) {
+            current.remove(current.size() - 1);
+        }
+    }
+
+    private void exportChunk(List<Podcast> chunk, Consumer<PodcastDto.PodcastResponseDto> sink) {
+        List<Long> ids = chunk.stream().map(Podcast::getId).collect(Collectors.toList());
+        Map<Long, List<String>> episodes = podcastRepository.findEpisodesByPodcastIds(ids).stream()
+                .collect(Collectors.groupingBy(PodcastEpisode::podcastId,
+                        Collectors.mapping(PodcastEpisode::episode, Collectors.toList())));
+        for (Podcast podcast : chunk) {
+            sink.accept(convertToDto(podcast, episodes.getOrDefault(podcast.getId(), List.of())));
+        }
+    }
+
+    private Podcast newPodcast(PodcastDto.PodcastRequestDto requestDto) {
+        Podcast podcast = new Podcast();
+        podcast.setTitle(requestDto.getTitle());
+        podcast.setAudioUrl(requestDto.getAudioUrl());
+        podcast.setEpisodes(requestDto.getEpisodes() != null
+                ? new ArrayList<>(requestDto.getEpisodes())
+                : new ArrayList<>());
+        return podcast;
+    }
+
+    private void onImported(List<Podcast> podcasts) {
+        cacheInvalidationBus.publishAll(CacheConfig.PODCASTS,
+                podcasts.stream().map(Podcast::getId).collect(Collectors.toList()));
+        for (Podcast podcast : podcasts) {
+            titleSearchService.index(TitleSearchIndex.ContentType.PODCAST, podcast.getId(), podcast.getTitle());
+        }
     }
 
     private PodcastDto.PodcastResponseDto convertToDto(Podcast podcast) {
+        return convertToDto(podcast, podcast.getEpisodes());
+    }
+
+    private PodcastDto.PodcastResponseDto convertToDto(Podcast podcast, List<String> episodes) {
         PodcastDto.PodcastResponseDto dto = new PodcastDto.PodcastResponseDto();
         dto.setId(podcast.getId());
         dto.setTitle(podcast.getTitle());
         dto.setAudioUrl(podcast.getAudioUrl());
-        dto.setEpisodes(podcast.getEpisodes());
+        dto.setEpisodes(new ArrayList<>(episodes));
         dto.setCreatedAt(podcast.getCreatedAt());
+        dto.setUpdatedAt(podcast.getUpdatedAt());
+        dto.setVersion(podcast.getVersion());
         return dto;
     }
 }
@@ -0,0 +1,62 @@
+package com.cms.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Lets one node at a time run a job that every node has scheduled.
+ * <p>
+ * Each job has one document in {@code job_locks} keyed by its name. A node
+ * takes the lease by upserting that document while the previous lease has
+ * expired; while it has not, the filter misses and the insert collides with
+ * the existing id. Leases are not released, so a job runs at most once per
+ * lease across the cluster and a node that dies mid-run blocks it for no
+ * longer than that. One-off jobs, such as startup migrations, also record
+ * on that document that they have finished.
+ */
+@Service
+public class ScheduledJobLock {
+    private static final String COLLECTION = "job_locks";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * @return whether this node now holds the lease on {@code job}
+     */
+    public boolean tryAcquire(String job, Duration lease) {
+        Date now = new Date();
+        Query expired = new Query(Criteria.where("_id").is(job).and("lockedUntil").lte(now));
+        Update take = new Update()
+                .set("lockedBy", nodeId)
+                .set("lockedAt", now)
+                .set("lockedUntil", new Date(now.getTime() + lease.toMillis()));
+        try {
+            mongoTemplate.upsert(expired, take, COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public boolean isCompleted(String job) {
+        return mongoTemplate.exists(new Query(Criteria.where("_id").is(job).and("completedAt").exists(true)),
+                COLLECTION);
+    }
+
+    public void markCompleted(String job) {
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(job)),
+                new Update().set("completedAt", new Date()).set("completedBy", nodeId), COLLECTION);
+    }
+}
@@ -0,0 +1,52 @@
+package com.cms.service;
+
+import com.cms.config.CacheConfig;
+import com.cms.model.entity.Podcast;
+import com.cms.model.entity.Video;
+import com.cms.security.UserDetailsServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Evicts Hibernate second-level cache entries for entities changed on other nodes.
+ */
+@Service
+public class SecondLevelCacheInvalidator implements CacheInvalidationListener {
+    private static final String PODCAST_EPISODES_ROLE = Podcast.class.getName() + ".episodes";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void onInvalidate(String cacheName, Object key) {
+        if (UserDetailsServiceImpl.CACHE_NAME.equals(cacheName)) {
+            // Cached findByUsername results, including misses, for the changed user.
+            regions().evictDefaultQueryRegion();
+            return;
+        }
+        if (!(key instanceof Long id)) {
+            return;
+        }
+        switch (cacheName) {
+            case CacheConfig.VIDEOS -> regions().evictEntityData(Video.class, id);
+            case CacheConfig.PODCASTS -> {
+                regions().evictEntityData(Podcast.class, id);
+                regions().evictCollectionData(PODCAST_EPISODES_ROLE, id);
+            }
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onFlush() {
+        regions().evictAllRegions();
+    }
+
+    private Cache regions() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -0,0 +1,460 @@
+package com.cms.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over content titles for type-ahead suggestions.
+ * <p>
+ * Documents get dense int ids in insertion order, so every posting list is a
+ * sorted {@code int[]} that only grows at the tail, with the newest documents
+ * last. Updates and deletes tombstone the old doc id, and the index compacts
+ * itself once tombstones exceed a quarter of the live documents. Every query
+ * token but the last must match a title token exactly; the last one is matched
+ * as a prefix through the sorted term dictionary.
+ * <p>
+ * Queries share a read lock and mutations take the write lock.
+ */
+public class TitleSearchIndex {
+    public enum ContentType {
+        ARTICLE, VIDEO, PODCAST
+    }
+
+    public record Hit(ContentType type, long id, String title) {
+    }
+
+    private static final ContentType[] TYPES = ContentType.values();
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int MAX_CANDIDATES = 1024;
+    private static final int MAX_PREFIX_TERMS = 256;
+    private static final int CANDIDATES_PER_PREFIX_TERM = 64;
+    private static final int MIN_COMPACTION_TOMBSTONES = 1024;
+
+    // Rough HotSpot sizes with compressed oops and Latin-1 compact strings.
+    private static final int STRING_OVERHEAD = 40;
+    private static final int TERM_OVERHEAD = 40 + 16 + 16 + STRING_OVERHEAD;
+    private static final int ARRAY_OVERHEAD = 16;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private TreeMap<String, Postings> terms;
+    private LongIntMap docsByKey;
+    private byte[] types;
+    private long[] ids;
+    private String[] titles;
+    private BitSet deleted;
+    private int docCount;
+    private int deletedCount;
+    private long termBytes;
+    private long postingBytes;
+    private long titleBytes;
+
+    public TitleSearchIndex() {
+        reset(16);
+    }
+
+    public void put(ContentType type, long id, String title) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key(type, id));
+            if (title != null) {
+                addLocked(type, id, title);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(ContentType type, long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key(type, id));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} titles matching every query token, best first:
+     * titles where the last token is a whole word, then shorter titles, then
+     * newer documents.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String prefix = tokens.get(tokens.size() - 1);
+        List<String> required = new ArrayList<>(new LinkedHashSet<>(tokens.subList(0, tokens.size() - 1)));
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Boolean> candidates = required.isEmpty()
+                    ? prefixCandidates(prefix)
+                    : intersectionCandidates(required, prefix);
+            return rank(candidates, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tombstoneCount() {
+        lock.readLock().lock();
+        try {
+            return deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate retained heap, kept up to date on every mutation rather than
+     * measured, so it is cheap enough to poll from a gauge.
+     */
+    public long estimatedMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long documentArrays = 3L * ARRAY_OVERHEAD + types.length + 8L * ids.length + 4L * titles.length;
+            return documentArrays + docsByKey.memoryBytes() + deleted.size() / 8
+                    + titleBytes + termBytes + postingBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-cases, strips diacritics and splits on anything that is not a
+     * letter or digit.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < normalized.length(); ) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.getType(codePoint) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (token.length() < MAX_TOKEN_LENGTH) {
+                    token.appendCodePoint(Character.toLowerCase(codePoint));
+                }
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private Map<Integer, Boolean> prefixCandidates(String prefix) {
+        Map<Integer, Boolean> candidates = new HashMap<>();
+        Postings exact = terms.get(prefix);
+        if (exact != null) {
+            collectNewest(exact, true, candidates, MAX_CANDIDATES);
+        }
+        // Completions are visited in term order and capped, so a very short
+        // prefix samples its completions rather than enumerating all of them.
+        int visited = 0;
+        for (Postings postings : terms.subMap(prefix, false, prefix + Character.MAX_VALUE, false).values()) {
+            if (candidates.size() >= MAX_CANDIDATES || ++visited > MAX_PREFIX_TERMS) {
+                break;
+            }
+            collectNewest(postings, false, candidates,
+                    Math.min(MAX_CANDIDATES, candidates.size() + CANDIDATES_PER_PREFIX_TERM));
+        }
+        return candidates;
+    }
+
+    private Map<Integer, Boolean> intersectionCandidates(List<String> required, String prefix) {
+        Postings[] lists = new Postings[required.size()];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = terms.get(required.get(i));
+            if (lists[i] == null) {
+                return Map.of();
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(postings -> postings.size));
+
+        Map<Integer, Boolean> candidates = new HashMap<>();
+        Postings smallest = lists[0];
+        for (int i = smallest.size - 1; i >= 0 && candidates.size() < MAX_CANDIDATES; i--) {
+            int doc = smallest.docs[i];
+            if (deleted.get(doc) || !containsAll(lists, doc)) {
+                continue;
+            }
+            Boolean exact = matchPrefix(titles[doc], prefix);
+            if (exact != null) {
+                candidates.put(doc, exact);
+            }
+        }
+        return candidates;
+    }
+
+    private void collectNewest(Postings postings, boolean exact, Map<Integer, Boolean> candidates, int cap) {
+        for (int i = postings.size - 1; i >= 0 && candidates.size() < cap; i--) {
+            int doc = postings.docs[i];
+            if (!deleted.get(doc)) {
+                candidates.merge(doc, exact, Boolean::logicalOr);
+            }
+        }
+    }
+
+    private List<Hit> rank(Map<Integer, Boolean> candidates, int limit) {
+        return candidates.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<Integer, Boolean>, Boolean>comparing(Map.Entry::getValue).reversed()
+                        .thenComparingInt(entry -> titles[entry.getKey()].length())
+                        .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> {
+                    int doc = entry.getKey();
+                    return new Hit(TYPES[types[doc]], ids[doc], titles[doc]);
+                })
+                .toList();
+    }
+
+    private static boolean containsAll(Postings[] lists, int doc) {
+        for (int i = 1; i < lists.length; i++) {
+            if (Arrays.binarySearch(lists[i].docs, 0, lists[i].size, doc) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@code TRUE} if the title has {@code prefix} as a whole token, {@code FALSE}
+     * if only as a token prefix, {@code null} if not at all.
+     */
+    private static Boolean matchPrefix(String title, String prefix) {
+        Boolean match = null;
+        for (String token : tokenize(title)) {
+            if (token.equals(prefix)) {
+                return Boolean.TRUE;
+            }
+            if (token.startsWith(prefix)) {
+                match = Boolean.FALSE;
+            }
+        }
+        return match;
+    }
+
+    private void addLocked(ContentType type, long id, String title) {
+        int doc = docCount++;
+        ensureCapacity(docCount);
+        types[doc] = (byte) type.ordinal();
+        ids[doc] = id;
+        titles[doc] = title;
+        titleBytes += STRING_OVERHEAD + title.length();
+        docsByKey.put(key(type, id), doc);
+
+        for (String token : new LinkedHashSet<>(tokenize(title))) {
+            Postings postings = terms.get(token);
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(token, postings);
+                termBytes += TERM_OVERHEAD + token.length();
+                postingBytes += 4L * postings.docs.length;
+            }
+            postingBytes += postings.add(doc);
+        }
+    }
+
+    private void removeLocked(long key) {
+        int doc = docsByKey.remove(key);
+        if (doc < 0) {
+            return;
+        }
+        deleted.set(doc);
+        titleBytes -= STRING_OVERHEAD + titles[doc].length();
+        titles[doc] = null;
+        deletedCount++;
+    }
+
+    private void compactIfNeeded() {
+        int live = docCount - deletedCount;
+        if (deletedCount < MIN_COMPACTION_TOMBSTONES || deletedCount * 4L <= live) {
+            return;
+        }
+        byte[] oldTypes = types;
+        long[] oldIds = ids;
+        String[] oldTitles = titles;
+        BitSet oldDeleted = deleted;
+        int oldCount = docCount;
+
+        reset(Math.max(16, live));
+        for (int doc = 0; doc < oldCount; doc++) {
+            if (!oldDeleted.get(doc)) {
+                addLocked(TYPES[oldTypes[doc]], oldIds[doc], oldTitles[doc]);
+            }
+        }
+    }
+
+    private void reset(int capacity) {
+        terms = new TreeMap<>();
+        docsByKey = new LongIntMap(capacity);
+        types = new byte[capacity];
+        ids = new long[capacity];
+        titles = new String[capacity];
+        deleted = new BitSet();
+        docCount = 0;
+        deletedCount = 0;
+        termBytes = 0;
+        postingBytes = 0;
+        titleBytes = 0;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        types = Arrays.copyOf(types, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+    }
+
+    private static long key(ContentType type, long id) {
+        return (id << 2) | type.ordinal();
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private int size;
+
+        /**
+         * Appends a doc id and returns how many bytes the backing array grew by.
+         */
+        private int add(int doc) {
+            int grownBy = 0;
+            if (size == docs.length) {
+                int capacity = docs.length + (docs.length >> 1) + 1;
+                grownBy = 4 * (capacity - docs.length);
+                docs = Arrays.copyOf(docs, capacity);
+            }
+            docs[size++] = doc;
+            return grownBy + (size == 1 ? ARRAY_OVERHEAD : 0);
+        }
+    }
+
+    /**
+     * Open-addressing {@code long -> int} map with linear probing, so the
+     * key-to-doc lookup costs 12 bytes per slot instead of a boxed HashMap entry.
+     */
+    private static final class LongIntMap {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private int[] values;
+        private int mask;
+        private int size;
+
+        private LongIntMap(int expected) {
+            allocate(Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1);
+        }
+
+        private void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int slot = slot(key);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == EMPTY) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        private int remove(long key) {
+            int slot = slot(key);
+            while (keys[slot] != key) {
+                if (keys[slot] == EMPTY) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int value = values[slot];
+
+            // Backward-shift deletion keeps probe chains intact without tombstones.
+            int gap = slot;
+            for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+                int home = slot(keys[next]);
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+            }
+            keys[gap] = EMPTY;
+            size--;
+            return value;
+        }
+
+        private long memoryBytes() {
+            return 2L * ARRAY_OVERHEAD + 12L * keys.length;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            allocate(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            values = new int[capacity];
+            mask = capacity - 1;
+            size = 0;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
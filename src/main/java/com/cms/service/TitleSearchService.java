@@ -0,0 +1,302 @@
+package com.cms.service;
+
+import com.cms.config.CacheConfig;
+import com.cms.dto.SearchDto;
+import com.cms.exception.BadRequestException;
+import com.cms.repository.ArticleRepository;
+import com.cms.repository.PodcastRepository;
+import com.cms.repository.VideoRepository;
+import com.cms.repository.projection.ContentTitle;
+import com.cms.service.TitleSearchIndex.ContentType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a {@link TitleSearchIndex} of article, video and podcast titles in step
+ * with the database and answers type-ahead queries from it.
+ * <p>
+ * The index is built in the background once the application is ready and
+ * rebuilt whenever the invalidation bus reports that messages may have been
+ * missed. Local writes are applied after their transaction commits; writes on
+ * other nodes arrive as invalidations, which the listener thread only queues.
+ * The queued ids are re-read in batches on the task executor, or the index is
+ * rebuilt when more are waiting than a rebuild would cost. Changes that land
+ * while a rebuild is loading are replayed onto the new index before it is
+ * swapped in.
+ */
+@Service
+public class TitleSearchService implements CacheInvalidationListener {
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 20;
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private PodcastRepository podcastRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${cms.search.suggest.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${cms.search.suggest.reload-rebuild-threshold:20000}")
+    private int reloadRebuildThreshold;
+
+    private volatile TitleSearchIndex index = new TitleSearchIndex();
+
+    private volatile boolean ready;
+
+    private final Object rebuildLock = new Object();
+
+    // Non-null while a rebuild is loading; guarded by rebuildLock.
+    private List<Consumer<TitleSearchIndex>> pendingChanges;
+
+    // Ids invalidated on other nodes and not yet re-read; guarded by itself.
+    private final Map<ContentType, Set<Long>> pendingReloads = new EnumMap<>(ContentType.class);
+
+    // Whether a reloadPending task is queued; guarded by pendingReloads.
+    private boolean reloadScheduled;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("cms.search.index.documents", this, service -> service.index.size())
+                .register(meterRegistry);
+        Gauge.builder("cms.search.index.terms", this, service -> service.index.termCount())
+                .register(meterRegistry);
+        Gauge.builder("cms.search.index.tombstones", this, service -> service.index.tombstoneCount())
+                .register(meterRegistry);
+        Gauge.builder("cms.search.index.memory", this, service -> service.index.estimatedMemoryBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskExecutor.execute(this::rebuild);
+    }
+
+    public List<SearchDto.SuggestionDto> suggest(String query, Integer limit) {
+        if (query != null && query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1) {
+            throw new BadRequestException("Limit must be positive");
+        }
+        return index.search(query, Math.min(size, MAX_LIMIT)).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    public void index(ContentType type, Long id, String title) {
+        afterCommit(() -> apply(target -> target.put(type, id, title)));
+    }
+
+    public void remove(ContentType type, Long id) {
+        afterCommit(() -> apply(target -> target.remove(type, id)));
+    }
+
+    @Override
+    public void onInvalidate(String cacheName, Object key) {
+        if (!(key instanceof Long id)) {
+            return;
+        }
+        ContentType type = switch (cacheName) {
+            case CacheConfig.ARTICLES -> ContentType.ARTICLE;
+            case CacheConfig.VIDEOS -> ContentType.VIDEO;
+            case CacheConfig.PODCASTS -> ContentType.PODCAST;
+            default -> null;
+        };
+        if (type == null) {
+            return;
+        }
+        synchronized (pendingReloads) {
+            pendingReloads.computeIfAbsent(type, t -> new HashSet<>()).add(id);
+            if (reloadScheduled) {
+                return;
+            }
+            reloadScheduled = true;
+        }
+        taskExecutor.execute(this::reloadPending);
+    }
+
+    @Override
+    public void onFlush() {
+        if (ready) {
+            taskExecutor.execute(this::rebuild);
+        }
+    }
+
+    /**
+     * @return whether a new index was loaded and swapped in
+     */
+    boolean rebuild() {
+        synchronized (rebuildLock) {
+            if (pendingChanges != null) {
+                return false;
+            }
+            pendingChanges = new ArrayList<>();
+        }
+
+        TitleSearchIndex fresh = new TitleSearchIndex();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            load(fresh, ContentType.ARTICLE, articleRepository::findTitlesAfter);
+            load(fresh, ContentType.VIDEO, videoRepository::findTitlesAfter);
+            load(fresh, ContentType.PODCAST, podcastRepository::findTitlesAfter);
+            sample.stop(meterRegistry.timer("cms.search.index.rebuild"));
+        } catch (RuntimeException e) {
+            // The previous index keeps serving; the next flush or restart retries.
+            meterRegistry.counter("cms.search.index.rebuild.failures").increment();
+            synchronized (rebuildLock) {
+                pendingChanges = null;
+            }
+            return false;
+        }
+
+        synchronized (rebuildLock) {
+            pendingChanges.forEach(change -> change.accept(fresh));
+            index = fresh;
+            pendingChanges = null;
+        }
+        ready = true;
+        return true;
+    }
+
+    /**
+     * Re-reads the titles of every id queued by {@link #onInvalidate}. A large
+     * backlog, e.g. from a bulk import on another node, is cheaper to cover
+     * with one rebuild; if a rebuild is already loading, it may have read some
+     * rows before they changed, so the ids are re-read anyway.
+     */
+    void reloadPending() {
+        Map<ContentType, Set<Long>> batch;
+        synchronized (pendingReloads) {
+            batch = new EnumMap<>(pendingReloads);
+            pendingReloads.clear();
+            reloadScheduled = false;
+        }
+        int queued = batch.values().stream().mapToInt(Set::size).sum();
+        if (queued > reloadRebuildThreshold && rebuild()) {
+            return;
+        }
+        try {
+            batch.forEach((type, ids) -> reload(type, ids, titlesByIds(type)));
+        } catch (RuntimeException e) {
+            // Same as a failed rebuild: the index keeps its current titles.
+            meterRegistry.counter("cms.search.index.reload.failures").increment();
+        }
+    }
+
+    private void load(TitleSearchIndex target, ContentType type,
+                      BiFunction<Long, Pageable, List<ContentTitle>> findTitlesAfter) {
+        Pageable batch = PageRequest.of(0, batchSize);
+        long afterId = 0;
+        List<ContentTitle> rows;
+        do {
+            rows = findTitlesAfter.apply(afterId, batch);
+            for (ContentTitle row : rows) {
+                target.put(type, row.id(), row.title());
+            }
+            if (!rows.isEmpty()) {
+                afterId = rows.get(rows.size() - 1).id();
+            }
+        } while (rows.size() == batchSize);
+    }
+
+    private void reload(ContentType type, Collection<Long> ids,
+                        Function<Collection<Long>, List<ContentTitle>> findTitlesByIdIn) {
+        List<Long> remaining = new ArrayList<>(ids);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            List<Long> chunk = remaining.subList(from, Math.min(from + batchSize, remaining.size()));
+            Map<Long, String> titles = new HashMap<>();
+            for (ContentTitle row : findTitlesByIdIn.apply(chunk)) {
+                titles.put(row.id(), row.title());
+            }
+            apply(target -> {
+                for (Long id : chunk) {
+                    String title = titles.get(id);
+                    if (title != null) {
+                        target.put(type, id, title);
+                    } else {
+                        target.remove(type, id);
+                    }
+                }
+            });
+        }
+    }
+
+    private Function<Collection<Long>, List<ContentTitle>> titlesByIds(ContentType type) {
+        return switch (type) {
+            case ARTICLE -> articleRepository::findTitlesByIdIn;
+            case VIDEO -> videoRepository::findTitlesByIdIn;
+            case PODCAST -> podcastRepository::findTitlesByIdIn;
+        };
+    }
+
+    private void apply(Consumer<TitleSearchIndex> change) {
+        synchronized (rebuildLock) {
+            change.accept(index);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private SearchDto.SuggestionDto convertToDto(TitleSearchIndex.Hit hit) {
+        SearchDto.SuggestionDto dto = new SearchDto.SuggestionDto();
+        dto.setType(hit.type().name());
+        dto.setId(hit.id());
+        dto.setTitle(hit.title());
+        return dto;
+    }
+}
@@ -6,8 +6,12 @@ import com.cms.exception.BadRequestException;
 import com.cms.model.entity.Role;
 import com.cms.model.entity.User;
 import com.cms.repository.UserRepository;
+import com.cms.security.CmsUserDetails;
 import com.cms.security.JwtTokenProvider;
+import com.cms.security.UserDetailsServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -17,6 +21,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserService {
+    private static final String USERNAME_CONSTRAINT = "users_username_key";
+    private static final String EMAIL_CONSTRAINT = "users_email_key";
+
     @Autowired
     private UserRepository userRepository;
 
@@ -32,34 +39,27 @@ public class UserService {
     @Autowired
     private JwtTokenService jwtTokenService;
 
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     @Transactional
     public AuthResponseDto register(UserDto.UserRegistrationDto registrationDto) {
-        if (userRepository.existsByUsername(registrationDto.getUsername())) {
-            throw new BadRequestException("Username already exists");
-        }
-
-        if (userRepository.existsByEmail(registrationDto.getEmail())) {
-            throw new BadRequestException("Email already exists");
-        }
-
         User user = new User();
         user.setUsername(registrationDto.getUsername());
         user.setEmail(registrationDto.getEmail());
         user.setPassword(passwordEncoder.encode(registrationDto.getPassword()));
         user.setRole(Role.USER);
 
-        user = userRepository.save(user);
-
-        String token = jwtTokenProvider.generateToken(user.getUsername(), user.getId());
-        jwtTokenService.saveToken(token, user.getId());
-
-        UserDto.UserResponseDto userResponse = new UserDto.UserResponseDto();
-        userResponse.setId(user.getId());
-        userResponse.setUsername(user.getUsername());
-        userResponse.setEmail(user.getEmail());
-        userResponse.setRole(user.getRole().name());
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateUserException(e);
+        }
+        // Another node may hold a cached miss for this username, e.g. from a
+        // login attempt before registering; sent when the transaction commits.
+        cacheInvalidationBus.publish(UserDetailsServiceImpl.CACHE_NAME, user.getUsername());
 
-        return new AuthResponseDto(token, userResponse);
+        return issueTokens(toUserResponse(user));
     }
 
     public AuthResponseDto login(UserDto.UserLoginDto loginDto) {
@@ -70,24 +70,80 @@ public class UserService {
                 )
         );
 
+        if (authentication.getPrincipal() instanceof CmsUserDetails userDetails) {
+            return issueTokens(toUserResponse(userDetails));
+        }
+
         User user = userRepository.findByUsername(loginDto.getUsername())
                 .orElseThrow(() -> new com.cms.exception.ResourceNotFoundException("User not found"));
 
+        return issueTokens(toUserResponse(user));
+    }
+
+    public AuthResponseDto refresh(UserDto.RefreshTokenRequestDto refreshDto) {
+        if (!jwtTokenService.isRefreshTokensEnabled()) {
+            throw new BadRequestException("Refresh tokens are not enabled");
+        }
+
+        Long userId = jwtTokenService.consumeRefreshToken(refreshDto.getRefreshToken());
+        return issueTokens(toUserResponse(findById(userId)));
+    }
+
+    public User findById(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new com.cms.exception.ResourceNotFoundException("User not found with id: " + id));
+    }
+
+    private AuthResponseDto issueTokens(UserDto.UserResponseDto user) {
+        if (jwtTokenService.isRefreshTokensEnabled()) {
+            String accessToken = jwtTokenProvider.generateAccessToken(user.getUsername(), user.getId());
+            String refreshToken = jwtTokenService.createRefreshToken(user.getId());
+            return new AuthResponseDto(accessToken, refreshToken, user);
+        }
+
         String token = jwtTokenProvider.generateToken(user.getUsername(), user.getId());
         jwtTokenService.saveToken(token, user.getId());
 
+        return new AuthResponseDto(token, user);
+    }
+
+    private BadRequestException duplicateUserException(DataIntegrityViolationException e) {
+        // Postgres' default names for the UNIQUE columns in V001; the message
+        // text also carries the offending values, so it cannot be matched on.
+        String constraint = constraintName(e);
+        if (USERNAME_CONSTRAINT.equalsIgnoreCase(constraint)) {
+            return new BadRequestException("Username already exists");
+        }
+        if (EMAIL_CONSTRAINT.equalsIgnoreCase(constraint)) {
+            return new BadRequestException("Email already exists");
+        }
+        return new BadRequestException("Username or email already exists");
+    }
+
+    private String constraintName(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName();
+            }
+        }
+        return null;
+    }
+
+    private UserDto.UserResponseDto toUserResponse(User user) {
         UserDto.UserResponseDto userResponse = new UserDto.UserResponseDto();
         userResponse.setId(user.getId());
         userResponse.setUsername(user.getUsername());
         userResponse.setEmail(user.getEmail());
         userResponse.setRole(user.getRole().name());
-
-        return new AuthResponseDto(token, userResponse);
+        return userResponse;
     }
 
-    public User findById(Long id) {
-        return userRepository.findById(id)
-                .orElseThrow(() -> new com.cms.exception.ResourceNotFoundException("User not found with id: " + id));
+    private UserDto.UserResponseDto toUserResponse(CmsUserDetails userDetails) {
+        UserDto.UserResponseDto userResponse = new UserDto.UserResponseDto();
+        userResponse.setId(userDetails.getId());
+        userResponse.setUsername(userDetails.getUsername());
+        userResponse.setEmail(userDetails.getEmail());
+        userResponse.setRole(userDetails.getRole().name());
+        return userResponse;
     }
 }
-
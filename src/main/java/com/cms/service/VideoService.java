@@ -1,44 +1,111 @@
 package com.cms.service;
 
+import com.cms.config.CacheConfig;
+import com.cms.dto.CursorPageDto;
+import com.cms.dto.ImportDto;
 import com.cms.dto.VideoDto;
 import com.cms.exception.ResourceNotFoundException;
 import com.cms.model.entity.Video;
 import com.cms.repository.VideoRepository;
+import com.cms.repository.projection.ContentVersion;
+import com.cms.util.CursorUtil;
+import com.cms.util.PartialUpdate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class VideoService {
     @Autowired
     private VideoRepository videoRepository;
 
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private TitleSearchService titleSearchService;
+
+    @Autowired
+    private CommentCleanupService commentCleanupService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Transactional
     public VideoDto.VideoResponseDto create(VideoDto.VideoRequestDto requestDto) {
-        Video video = new Video();
-        video.setTitle(requestDto.getTitle());
-        video.setUrl(requestDto.getUrl());
-        video.setDuration(requestDto.getDuration());
-
-        video = videoRepository.save(video);
+        Video video = videoRepository.save(newVideo(requestDto));
+        // Other nodes add the new title to their search index on this message.
+        cacheInvalidationBus.publish(CacheConfig.VIDEOS, video.getId());
+        titleSearchService.index(TitleSearchIndex.ContentType.VIDEO, video.getId(), video.getTitle());
         return convertToDto(video);
     }
 
+    /**
+     * Imports one video per NDJSON line. Each chunk commits on its own; see
+     * {@link BulkImportService}.
+     */
+    public ImportDto.ImportResultDto importNdjson(InputStream in, Integer chunkSize) {
+        return bulkImportService.importNdjson(in, chunkSize, VideoDto.VideoRequestDto.class,
+                this::newVideo, this::onImported);
+    }
+
+    public ContentVersion getVersion(Long id) {
+        return videoRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Video not found with id: " + id));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.VIDEOS, key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public VideoDto.VideoResponseDto getById(Long id) {
         Video video = videoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Video not found with id: " + id));
         return convertToDto(video);
     }
 
-    public List<VideoDto.VideoResponseDto> getAll() {
-        return videoRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPageDto<VideoDto.VideoResponseDto> getPage(String cursor, Integer limit) {
+        int pageSize = CursorUtil.normalizeLimit(limit);
+        List<Video> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = videoRepository.findFirstPage(CursorUtil.pageable(pageSize));
+        } else {
+            CursorUtil.Cursor position = CursorUtil.decode(cursor);
+            rows = videoRepository.findPageAfter(position.createdAt(), position.id(), CursorUtil.pageable(pageSize));
+        }
+        return CursorUtil.toPage(rows, pageSize, this::convertToDto,
+                video -> CursorUtil.encode(video.getCreatedAt(), video.getId()));
+    }
+
+    /**
+     * Streams every video updated at or after {@code updatedSince} (all of
+     * them when null) to {@code sink} in id order. Rows are detached once
+     * written so the persistence context stays empty however large the
+     * catalogue is.
+     */
+    @Transactional(readOnly = true)
+    public void export(LocalDateTime updatedSince, Consumer<VideoDto.VideoResponseDto> sink) {
+        try (Stream<Video> rows = videoRepository.streamForExport(updatedSince)) {
+            rows.forEach(video -> {
+                sink.accept(convertToDto(video));
+                entityManager.detach(video);
+            });
+        }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.VIDEOS, key = "#id")
     @Transactional
     public VideoDto.VideoResponseDto update(Long id, VideoDto.VideoRequestDto requestDto) {
         Video video = videoRepository.findById(id)
@@ -48,16 +115,86 @@ public class VideoService {
         video.setUrl(requestDto.getUrl());
         video.setDuration(requestDto.getDuration());
 
-        video = videoRepository.save(video);
+        // Flush now so the returned version and updatedAt reflect this write.
+        video = videoRepository.saveAndFlush(video);
+        cacheInvalidationBus.publish(CacheConfig.VIDEOS, id);
+        titleSearchService.index(TitleSearchIndex.ContentType.VIDEO, id, video.getTitle());
         return convertToDto(video);
     }
 
+    /**
+     * Applies the non-null fields of {@code patchDto}; only changed columns
+     * are written.
+     */
+    @CacheEvict(cacheNames = CacheConfig.VIDEOS, key = "#id")
+    @Transactional
+    public VideoDto.VideoResponseDto patch(Long id, VideoDto.VideoPatchDto patchDto) {
+        Video video = videoRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Video not found with id: " + id));
+
+        if (patchDto.getTitle() != null) {
+            video.setTitle(patchDto.getTitle());
+        }
+        if (patchDto.getUrl() != null) {
+            video.setUrl(patchDto.getUrl());
+        }
+        if (patchDto.getDuration() != null) {
+            video.setDuration(patchDto.getDuration());
+        }
+
+        video = videoRepository.saveAndFlush(video);
+        cacheInvalidationBus.publish(CacheConfig.VIDEOS, id);
+        titleSearchService.index(TitleSearchIndex.ContentType.VIDEO, id, video.getTitle());
+        return convertToDto(video);
+    }
+
+    /**
+     * Same as {@link #patch} but issues a single UPDATE without reading the
+     * row first, for callers that do not need the result.
+     */
+    @CacheEvict(cacheNames = CacheConfig.VIDEOS, key = "#id")
+    @Transactional
+    public void patchWithoutReading(Long id, VideoDto.VideoPatchDto patchDto) {
+        int updated = PartialUpdate.of(entityManager, Video.class)
+                .set("title", patchDto.getTitle())
+                .set("url", patchDto.getUrl())
+                .set("duration", patchDto.getDuration())
+                .execute(id);
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Video not found with id: " + id);
+        }
+        cacheInvalidationBus.publish(CacheConfig.VIDEOS, id);
+        if (patchDto.getTitle() != null) {
+            titleSearchService.index(TitleSearchIndex.ContentType.VIDEO, id, patchDto.getTitle());
+        }
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.VIDEOS, key = "#id")
     @Transactional
     public void delete(Long id) {
         if (!videoRepository.existsById(id)) {
             throw new ResourceNotFoundException("Video not found with id: " + id);
         }
         videoRepository.deleteById(id);
+        cacheInvalidationBus.publish(CacheConfig.VIDEOS, id);
+        titleSearchService.remove(TitleSearchIndex.ContentType.VIDEO, id);
+        commentCleanupService.deleteForContent(TitleSearchIndex.ContentType.VIDEO, id);
+    }
+
+    private Video newVideo(VideoDto.VideoRequestDto requestDto) {
+        Video video = new Video();
+        video.setTitle(requestDto.getTitle());
+        video.setUrl(requestDto.getUrl());
+        video.setDuration(requestDto.getDuration());
+        return video;
+    }
+
+    private void onImported(List<Video> videos) {
+        cacheInvalidationBus.publishAll(CacheConfig.VIDEOS,
+                videos.stream().map(Video::getId).collect(Collectors.toList()));
+        for (Video video : videos) {
+            titleSearchService.index(TitleSearchIndex.ContentType.VIDEO, video.getId(), video.getTitle());
+        }
     }
 
     private VideoDto.VideoResponseDto convertToDto(Video video) {
@@ -67,6 +204,8 @@ public class VideoService {
         dto.setUrl(video.getUrl());
         dto.setDuration(video.getDuration());
         dto.setCreatedAt(video.getCreatedAt());
+        dto.setUpdatedAt(video.getUpdatedAt());
+        dto.setVersion(video.getVersion());
         return dto;
     }
 }
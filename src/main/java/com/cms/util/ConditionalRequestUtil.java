@@ -0,0 +1,130 @@
+package com.cms.util;
+
+import com.cms.dto.CursorPageDto;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Strong ETag / Last-Modified handling for content GETs. Validators are
+ * evaluated by the controllers themselves so a matching request can be
+ * answered from a version-only lookup before the entity is loaded. Writes
+ * that honour {@code Prefer: return=minimal} skip loading it altogether.
+ */
+public final class ConditionalRequestUtil {
+    private ConditionalRequestUtil() {
+    }
+
+    public static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * True when the client sent {@code Prefer: return=minimal} (RFC 7240) and
+     * does not need the updated representation back.
+     */
+    public static boolean prefersMinimalReturn(WebRequest request) {
+        String prefer = request.getHeader("Prefer");
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            if (preference.trim().replace(" ", "").equalsIgnoreCase("return=minimal")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static String etag(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    public static String etag(String representation) {
+        return "\"" + TokenHashUtil.sha256(representation).substring(0, 32) + "\"";
+    }
+
+    public static <T> String pageEtag(CursorPageDto<T> page, Function<T, String> itemVersion) {
+        String items = page.getItems().stream()
+                .map(itemVersion)
+                .collect(Collectors.joining(","));
+        return etag(items + "|" + page.getNextCursor());
+    }
+
+    /**
+     * If-None-Match takes precedence over If-Modified-Since (RFC 9110, 13.2.2).
+     */
+    public static boolean isNotModified(WebRequest request, String etag, LocalDateTime lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return etag != null && matches(ifNoneMatch, etag);
+        }
+
+        String ifModifiedSince = request.getHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        if (ifModifiedSince != null && lastModified != null) {
+            try {
+                long since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME)
+                        .toInstant().toEpochMilli();
+                return toEpochSecond(lastModified) * 1000 <= since;
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    public static <T> ResponseEntity<T> notModified(String etag, LocalDateTime lastModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.NOT_MODIFIED);
+        return withValidators(builder, etag, lastModified).build();
+    }
+
+    public static <T> ResponseEntity<T> ok(T body, String etag, LocalDateTime lastModified) {
+        return withValidators(ResponseEntity.ok(), etag, lastModified).body(body);
+    }
+
+    /**
+     * Answers from the already-computed body; used where there is no cheaper
+     * validator lookup than the (cached) body itself.
+     */
+    public static <T> ResponseEntity<T> respond(WebRequest request, T body, String etag, LocalDateTime lastModified) {
+        if (isNotModified(request, etag, lastModified)) {
+            return notModified(etag, lastModified);
+        }
+        return ok(body, etag, lastModified);
+    }
+
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, String etag,
+                                                             LocalDateTime lastModified) {
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        if (lastModified != null) {
+            builder.lastModified(toEpochSecond(lastModified) * 1000);
+        }
+        return builder;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
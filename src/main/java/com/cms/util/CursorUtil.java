@@ -0,0 +1,112 @@
+package com.cms.util;
+
+import com.cms.dto.CursorPageDto;
+import com.cms.exception.BadRequestException;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque keyset cursors over {@code (created_at, id)}, with numeric ids for
+ * content rows and ObjectId hex for Mongo documents, plus offset cursors for
+ * result sets ordered by a computed score.
+ */
+public final class CursorUtil {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private CursorUtil() {
+    }
+
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("Limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Fetches one row past the requested page so the presence of a next page
+     * is known without a count query.
+     */
+    public static Pageable pageable(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    public static String encode(LocalDateTime createdAt, Long id) {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public static String encode(LocalDateTime createdAt, String documentId) {
+        String value = createdAt + "|" + documentId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DocumentCursor decodeDocument(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new DocumentCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    new ObjectId(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public static String encodeOffset(int offset) {
+        String value = "o|" + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static int decodeOffset(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith("o|")) {
+                throw new IllegalArgumentException();
+            }
+            int offset = Integer.parseInt(value.substring(2));
+            if (offset < 0) {
+                throw new IllegalArgumentException();
+            }
+            return offset;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public static <E, T> CursorPageDto<T> toPage(List<E> rows, int limit, Function<E, T> mapper,
+                                                 Function<E, String> cursorOf) {
+        boolean hasMore = rows.size() > limit;
+        List<E> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)) : null;
+        return new CursorPageDto<>(page.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+
+    public record Cursor(LocalDateTime createdAt, Long id) {
+    }
+
+    public record DocumentCursor(LocalDateTime createdAt, ObjectId id) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.cms.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes one JSON document per line to a response stream. Output is flushed
+ * every {@value #FLUSH_EVERY} rows rather than per row, so the client sees
+ * steady progress without a network write per document.
+ */
+public class NdjsonWriter {
+    private static final int FLUSH_EVERY = 100;
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+    private int pending;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Unchecked so it can be passed where a {@code Consumer} is expected; a
+     * client that disconnects mid-export aborts the surrounding stream.
+     */
+    public void write(Object value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+            if (++pending == FLUSH_EVERY) {
+                flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void flush() throws IOException {
+        generator.flush();
+        pending = 0;
+    }
+}
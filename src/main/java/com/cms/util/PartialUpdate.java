@@ -0,0 +1,63 @@
+package com.cms.util;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+
+/**
+ * Builds a single {@code UPDATE ... WHERE id = ?} that sets only the
+ * attributes given a non-null value, without loading the entity first.
+ * <p>
+ * The statement also bumps {@code version} and {@code updatedAt}, which the
+ * entity callbacks would otherwise do. As with any bulk update, Hibernate
+ * evicts the entity's second-level cache region when it runs.
+ */
+public final class PartialUpdate<T> {
+    private final EntityManager entityManager;
+    private final Class<T> type;
+    private final CriteriaBuilder builder;
+    private final CriteriaUpdate<T> update;
+    private final Root<T> root;
+    private boolean changed;
+
+    private PartialUpdate(EntityManager entityManager, Class<T> type) {
+        this.entityManager = entityManager;
+        this.type = type;
+        this.builder = entityManager.getCriteriaBuilder();
+        this.update = builder.createCriteriaUpdate(type);
+        this.root = update.from(type);
+    }
+
+    public static <T> PartialUpdate<T> of(EntityManager entityManager, Class<T> type) {
+        return new PartialUpdate<>(entityManager, type);
+    }
+
+    public PartialUpdate<T> set(String attribute, Object value) {
+        if (value != null) {
+            update.set(root.get(attribute), value);
+            changed = true;
+        }
+        return this;
+    }
+
+    /**
+     * Runs the update and returns the number of rows matched: 0 when no row
+     * has this id. When nothing was set, only checks that the row exists.
+     */
+    public int execute(Long id) {
+        if (!changed) {
+            CriteriaQuery<Long> count = builder.createQuery(Long.class);
+            Root<T> row = count.from(type);
+            count.select(builder.count(row)).where(builder.equal(row.get("id"), id));
+            return entityManager.createQuery(count).getSingleResult().intValue();
+        }
+        update.set(root.<Long>get("version"), builder.sum(root.<Long>get("version"), 1L));
+        update.set(root.get("updatedAt"), LocalDateTime.now());
+        update.where(builder.equal(root.get("id"), id));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -1,8 +1,6 @@
 package com.cms.util;
 
-import com.cms.security.JwtTokenProvider;
-import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.cms.security.JwtPrincipal;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -12,9 +10,6 @@ import java.util.Collection;
 
 @Component
 public class SecurityUtil {
-    @Autowired
-    private JwtTokenProvider jwtTokenProvider;
-
     public String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.isAuthenticated()) {
@@ -23,14 +18,11 @@ public class SecurityUtil {
         return null;
     }
 
-    public Long getCurrentUserId(HttpServletRequest request) {
-        try {
-            String token = getTokenFromRequest(request);
-            if (token != null && jwtTokenProvider.validateToken(token)) {
-                return jwtTokenProvider.getUserIdFromToken(token);
-            }
-        } catch (Exception e) {
-            return null;
+    public Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal.getUserId();
         }
         return null;
     }
@@ -48,13 +40,4 @@ public class SecurityUtil {
     public boolean isAdmin() {
         return hasRole("ADMIN");
     }
-
-    private String getTokenFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-        return null;
-    }
 }
-
@@ -0,0 +1,3 @@
+CREATE INDEX idx_articles_created_at_id ON articles(created_at DESC, id DESC);
+CREATE INDEX idx_videos_created_at_id ON videos(created_at DESC, id DESC);
+CREATE INDEX idx_podcasts_created_at_id ON podcasts(created_at DESC, id DESC);
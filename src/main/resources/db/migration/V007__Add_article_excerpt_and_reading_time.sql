@@ -0,0 +1,7 @@
+ALTER TABLE articles ADD COLUMN excerpt VARCHAR(500);
+ALTER TABLE articles ADD COLUMN reading_time_minutes INTEGER;
+
+UPDATE articles
+SET excerpt = LEFT(regexp_replace(trim(content), '\s+', ' ', 'g'), 280),
+    reading_time_minutes = GREATEST(1, CEIL(
+        COALESCE(array_length(regexp_split_to_array(trim(content), '\s+'), 1), 0) / 200.0));
@@ -0,0 +1,14 @@
+ALTER TABLE articles ADD COLUMN updated_at TIMESTAMP;
+ALTER TABLE articles ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+UPDATE articles SET updated_at = created_at;
+ALTER TABLE articles ALTER COLUMN updated_at SET NOT NULL;
+
+ALTER TABLE videos ADD COLUMN updated_at TIMESTAMP;
+ALTER TABLE videos ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+UPDATE videos SET updated_at = created_at;
+ALTER TABLE videos ALTER COLUMN updated_at SET NOT NULL;
+
+ALTER TABLE podcasts ADD COLUMN updated_at TIMESTAMP;
+ALTER TABLE podcasts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+UPDATE podcasts SET updated_at = created_at;
+ALTER TABLE podcasts ALTER COLUMN updated_at SET NOT NULL;
@@ -0,0 +1,9 @@
+-- Title terms are weighted A and body terms B so title matches rank first.
+-- The column is generated, so every insert and update keeps it current.
+ALTER TABLE articles ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(content, '')), 'B')
+    ) STORED;
+
+CREATE INDEX idx_articles_search_vector ON articles USING GIN (search_vector);
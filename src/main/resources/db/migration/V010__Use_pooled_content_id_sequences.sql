@@ -0,0 +1,8 @@
+-- Articles, videos and podcasts switch from IDENTITY to Hibernate's pooled
+-- sequence optimizer. Each nextval reserves a block of 50 ids, so ids are
+-- known before insert and JDBC batching stays enabled. The increment must
+-- match allocationSize on the entities. Column defaults still draw from the
+-- same sequences, so plain SQL inserts cannot collide with Hibernate's blocks.
+ALTER SEQUENCE articles_id_seq INCREMENT BY 50;
+ALTER SEQUENCE videos_id_seq INCREMENT BY 50;
+ALTER SEQUENCE podcasts_id_seq INCREMENT BY 50;
@@ -0,0 +1,20 @@
+-- Episodes keep the order clients send them in. Each row gets its position
+-- in the podcast's list. The old table kept no order, so existing rows are
+-- numbered by episode, the order the (podcast_id, episode) key returned them
+-- in. The key moves to the position, so Hibernate can rewrite a single
+-- position and a list may repeat an episode.
+ALTER TABLE podcast_episodes ADD COLUMN episode_order INTEGER;
+
+UPDATE podcast_episodes pe
+SET episode_order = numbered.position
+FROM (
+    SELECT podcast_id, episode,
+           ROW_NUMBER() OVER (PARTITION BY podcast_id ORDER BY episode) - 1 AS position
+    FROM podcast_episodes
+) numbered
+WHERE pe.podcast_id = numbered.podcast_id
+  AND pe.episode = numbered.episode;
+
+ALTER TABLE podcast_episodes ALTER COLUMN episode_order SET NOT NULL;
+ALTER TABLE podcast_episodes DROP CONSTRAINT podcast_episodes_pkey;
+ALTER TABLE podcast_episodes ADD PRIMARY KEY (podcast_id, episode_order);
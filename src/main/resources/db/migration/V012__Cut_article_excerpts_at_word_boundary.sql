@@ -0,0 +1,16 @@
+-- V007 cut backfilled excerpts at exactly 280 characters. Recompute the ones
+-- that were shortened the way ArticleService.buildExcerpt does: cut at the
+-- last space within the first 281 characters, or at 280 when there is none,
+-- and append an ellipsis. Shorter texts were copied whole and are left alone.
+UPDATE articles a
+SET excerpt = CASE
+        WHEN position(' ' IN left(normalized.text, 281)) > 0
+            THEN regexp_replace(left(normalized.text, 281), ' [^ ]*$', '')
+        ELSE left(normalized.text, 280)
+    END || '…'
+FROM (
+    SELECT id, regexp_replace(trim(content), '\s+', ' ', 'g') AS text
+    FROM articles
+) normalized
+WHERE a.id = normalized.id
+  AND length(normalized.text) > 280;
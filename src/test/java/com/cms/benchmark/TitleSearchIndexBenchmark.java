@@ -0,0 +1,133 @@
+package com.cms.benchmark;
+
+import com.cms.service.TitleSearchIndex;
+import com.cms.service.TitleSearchIndex.ContentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of {@link TitleSearchIndex} over a synthetic corpus of 1M titles.
+ * <p>
+ * Titles are 3-8 words drawn from a 50k-word vocabulary with a Zipf-like skew,
+ * so the first words are common and the tail is rare. Run after
+ * {@code mvn test-compile} with:
+ * <pre>
+ * mvn -q exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.cms.benchmark.TitleSearchIndexBenchmark
+ * </pre>
+ * The estimated index size is printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class TitleSearchIndexBenchmark {
+    private static final int VOCABULARY_SIZE = 50_000;
+
+    @Param("1000000")
+    private int documents;
+
+    private TitleSearchIndex index;
+
+    private String[] vocabulary;
+
+    private String[] shortPrefixes;
+
+    private String[] rarePrefixes;
+
+    private String[] twoTermQueries;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        vocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary[i] = word(random);
+        }
+
+        index = new TitleSearchIndex();
+        ContentType[] types = ContentType.values();
+        for (int id = 1; id <= documents; id++) {
+            int words = 3 + random.nextInt(6);
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < words; w++) {
+                title.append(w == 0 ? "" : " ").append(vocabulary[skewed(random)]);
+            }
+            index.put(types[id % types.length], id, title.toString());
+        }
+        System.out.printf("%nIndexed %d titles, %d terms, ~%d MB estimated%n", index.size(),
+                index.termCount(), index.estimatedMemoryBytes() / (1024 * 1024));
+
+        shortPrefixes = new String[256];
+        rarePrefixes = new String[256];
+        twoTermQueries = new String[256];
+        for (int i = 0; i < 256; i++) {
+            shortPrefixes[i] = vocabulary[random.nextInt(100)].substring(0, 2);
+            String rare = vocabulary[VOCABULARY_SIZE / 2 + random.nextInt(VOCABULARY_SIZE / 2)];
+            rarePrefixes[i] = rare.substring(0, Math.min(rare.length(), 5));
+            String common = vocabulary[random.nextInt(50)];
+            String other = vocabulary[skewed(random)];
+            twoTermQueries[i] = common + " " + other.substring(0, Math.min(other.length(), 3));
+        }
+    }
+
+    @Benchmark
+    public List<TitleSearchIndex.Hit> shortPrefix() {
+        return index.search(shortPrefixes[next()], 10);
+    }
+
+    @Benchmark
+    public List<TitleSearchIndex.Hit> rarePrefix() {
+        return index.search(rarePrefixes[next()], 10);
+    }
+
+    @Benchmark
+    public List<TitleSearchIndex.Hit> wordThenPrefix() {
+        return index.search(twoTermQueries[next()], 10);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & 255;
+        return cursor;
+    }
+
+    private static int skewed(Random random) {
+        double u = random.nextDouble();
+        return (int) (VOCABULARY_SIZE * u * u * u);
+    }
+
+    private static String word(Random random) {
+        int length = 4 + random.nextInt(7);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TitleSearchIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -1,6 +1,8 @@
 package com.cms.controller;
 
 import com.cms.dto.ArticleDto;
+import com.cms.dto.CursorPageDto;
+import com.cms.repository.projection.ContentVersion;
 import com.cms.service.ArticleService;
 import com.cms.util.SecurityUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,13 +13,20 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -52,7 +61,7 @@ class ArticleControllerTest {
         responseDto.setAuthorId(1L);
         responseDto.setAuthorUsername("testuser");
 
-        when(securityUtil.getCurrentUserId(any())).thenReturn(1L);
+        when(securityUtil.getCurrentUserId()).thenReturn(1L);
         when(articleService.create(any(ArticleDto.ArticleRequestDto.class), eq(1L))).thenReturn(responseDto);
 
         mockMvc.perform(post("/api/articles")
@@ -80,26 +89,114 @@ class ArticleControllerTest {
                 .andExpect(jsonPath("$.title").value("Test Article"));
     }
 
+    @Test
+    @WithMockUser
+    void testGetArticleByIdEmitsValidators() throws Exception {
+        ArticleDto.ArticleResponseDto responseDto = new ArticleDto.ArticleResponseDto();
+        responseDto.setId(1L);
+        responseDto.setTitle("Test Article");
+        responseDto.setVersion(3L);
+        responseDto.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+
+        when(articleService.getById(1L)).thenReturn(responseDto);
+
+        mockMvc.perform(get("/api/articles/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().exists("Last-Modified"));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetArticleByIdNotModified() throws Exception {
+        when(articleService.getVersion(1L)).thenReturn(new ContentVersion(3L, LocalDateTime.of(2024, 1, 1, 12, 0)));
+
+        mockMvc.perform(get("/api/articles/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(articleService, never()).getById(any());
+    }
+
+    @Test
+    @WithMockUser
+    void testGetArticleByIdModifiedSinceVersion() throws Exception {
+        ArticleDto.ArticleResponseDto responseDto = new ArticleDto.ArticleResponseDto();
+        responseDto.setId(1L);
+        responseDto.setVersion(4L);
+
+        when(articleService.getVersion(1L)).thenReturn(new ContentVersion(4L, LocalDateTime.of(2024, 1, 2, 12, 0)));
+        when(articleService.getById(1L)).thenReturn(responseDto);
+
+        mockMvc.perform(get("/api/articles/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
     @Test
     @WithMockUser
     void testGetAllArticles() throws Exception {
-        ArticleDto.ArticleResponseDto article1 = new ArticleDto.ArticleResponseDto();
+        ArticleDto.ArticleSummaryDto article1 = new ArticleDto.ArticleSummaryDto();
         article1.setId(1L);
         article1.setTitle("Article 1");
 
-        ArticleDto.ArticleResponseDto article2 = new ArticleDto.ArticleResponseDto();
+        ArticleDto.ArticleSummaryDto article2 = new ArticleDto.ArticleSummaryDto();
         article2.setId(2L);
         article2.setTitle("Article 2");
 
-        List<ArticleDto.ArticleResponseDto> articles = Arrays.asList(article1, article2);
+        List<ArticleDto.ArticleSummaryDto> articles = Arrays.asList(article1, article2);
 
-        when(articleService.getAll()).thenReturn(articles);
+        when(articleService.getPage(null, null)).thenReturn(new CursorPageDto<>(articles, null));
 
         mockMvc.perform(get("/api/articles"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[1].id").value(2L));
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.items[1].id").value(2L))
+                .andExpect(jsonPath("$.items[0].content").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void testExportStreamsNdjson() throws Exception {
+        when(securityUtil.isAdmin()).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<ArticleDto.ArticleResponseDto> sink = invocation.getArgument(1);
+            for (long id = 1; id <= 2; id++) {
+                ArticleDto.ArticleResponseDto article = new ArticleDto.ArticleResponseDto();
+                article.setId(id);
+                article.setTitle("Article " + id);
+                sink.accept(article);
+            }
+            return null;
+        }).when(articleService).export(any(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/articles/export").param("updatedSince", "2024-01-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+        assertTrue(body.endsWith("\n"));
+        verify(articleService).export(eq(LocalDateTime.of(2024, 1, 1, 0, 0)), any());
+    }
+
+    @Test
+    @WithMockUser
+    void testExportRequiresAdmin() throws Exception {
+        when(securityUtil.isAdmin()).thenReturn(false);
+
+        mockMvc.perform(get("/api/articles/export"))
+                .andExpect(status().isBadRequest());
+
+        verify(articleService, never()).export(any(), any());
     }
 
     @Test
@@ -124,6 +221,56 @@ class ArticleControllerTest {
                 .andExpect(jsonPath("$.title").value("Updated Article"));
     }
 
+    @Test
+    @WithMockUser
+    void testPatchArticleReturnsUpdatedArticle() throws Exception {
+        ArticleDto.ArticleResponseDto responseDto = new ArticleDto.ArticleResponseDto();
+        responseDto.setId(1L);
+        responseDto.setTitle("Patched Article");
+
+        when(securityUtil.isAdmin()).thenReturn(true);
+        when(articleService.patch(eq(1L), any(ArticleDto.ArticlePatchDto.class))).thenReturn(responseDto);
+
+        mockMvc.perform(patch("/api/articles/1")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Patched Article\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Patched Article"));
+
+        verify(articleService, never()).patchWithoutReading(any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void testPatchArticlePreferMinimalSkipsBody() throws Exception {
+        when(securityUtil.isAdmin()).thenReturn(true);
+
+        mockMvc.perform(patch("/api/articles/1")
+                        .with(csrf())
+                        .header("Prefer", "return=minimal")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Patched Article\"}"))
+                .andExpect(status().isNoContent());
+
+        verify(articleService).patchWithoutReading(eq(1L), any(ArticleDto.ArticlePatchDto.class));
+        verify(articleService, never()).patch(any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void testPatchArticleRejectsBlankTitle() throws Exception {
+        when(securityUtil.isAdmin()).thenReturn(true);
+
+        mockMvc.perform(patch("/api/articles/1")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"  \"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(articleService, never()).patch(any(), any());
+    }
+
     @Test
     @WithMockUser
     void testDeleteArticle() throws Exception {
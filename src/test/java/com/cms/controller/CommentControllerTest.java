@@ -1,7 +1,10 @@
 package com.cms.controller;
 
 import com.cms.dto.CommentDto;
+import com.cms.dto.CursorPageDto;
+import com.cms.service.CommentCounterService;
 import com.cms.service.CommentService;
+import com.cms.service.CommentStreamBroadcaster;
 import com.cms.util.SecurityUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -11,6 +14,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -31,6 +35,12 @@ class CommentControllerTest {
     @MockBean
     private CommentService commentService;
 
+    @MockBean
+    private CommentCounterService commentCounterService;
+
+    @MockBean
+    private CommentStreamBroadcaster commentStreamBroadcaster;
+
     @MockBean
     private SecurityUtil securityUtil;
 
@@ -80,6 +90,33 @@ class CommentControllerTest {
                 .andExpect(jsonPath("$.text").value("Test comment"));
     }
 
+    @Test
+    @WithMockUser
+    void testGetThreadIsValidatedByEtagOnly() throws Exception {
+        CommentDto.CommentResponseDto reply = new CommentDto.CommentResponseDto();
+        reply.setId("reply-1");
+        reply.setUpdatedAt(LocalDateTime.of(2024, 1, 15, 11, 0));
+        CommentDto.CommentResponseDto before = new CommentDto.CommentResponseDto();
+        before.setId("comment-id");
+        before.setUpdatedAt(LocalDateTime.of(2024, 1, 15, 10, 0));
+        before.setReplies(List.of(reply));
+        CommentDto.CommentResponseDto after = new CommentDto.CommentResponseDto();
+        after.setId("comment-id");
+        after.setUpdatedAt(before.getUpdatedAt());
+
+        when(commentService.getById("comment-id")).thenReturn(before, after);
+
+        mockMvc.perform(get("/api/comments/comment-id"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().doesNotExist("Last-Modified"));
+
+        // The reply was deleted, but no remaining updatedAt moved forward.
+        mockMvc.perform(get("/api/comments/comment-id")
+                        .header("If-Modified-Since", "Mon, 15 Jan 2024 12:00:00 GMT"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     @WithMockUser
     void testGetCommentsByContent() throws Exception {
@@ -93,13 +130,62 @@ class CommentControllerTest {
 
         List<CommentDto.CommentResponseDto> comments = Arrays.asList(comment1, comment2);
 
-        when(commentService.getByContent(1L, "ARTICLE")).thenReturn(comments);
+        when(commentService.getPage(1L, "ARTICLE", null, null)).thenReturn(new CursorPageDto<>(comments, "next"));
 
         mockMvc.perform(get("/api/comments")
                         .param("contentId", "1")
                         .param("contentType", "ARTICLE"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetReplies() throws Exception {
+        CommentDto.CommentResponseDto reply = new CommentDto.CommentResponseDto();
+        reply.setId("reply-1");
+        reply.setParentId("comment-1");
+        reply.setReplyCount(3L);
+
+        when(commentService.getReplies("comment-1", "cursor", 10))
+                .thenReturn(new CursorPageDto<>(List.of(reply), null));
+
+        mockMvc.perform(get("/api/comments/comment-1/replies")
+                        .param("cursor", "cursor")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].parentId").value("comment-1"))
+                .andExpect(jsonPath("$.items[0].replyCount").value(3));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetCounts() throws Exception {
+        when(commentCounterService.getCounts("ARTICLE", List.of(1L, 2L))).thenReturn(List.of(
+                new CommentDto.CommentCountDto("ARTICLE", 1L, 5),
+                new CommentDto.CommentCountDto("ARTICLE", 2L, 0)));
+
+        mockMvc.perform(get("/api/comments/counts")
+                        .param("contentType", "ARTICLE")
+                        .param("contentIds", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].contentId").value(1))
+                .andExpect(jsonPath("$[0].count").value(5))
+                .andExpect(jsonPath("$[1].count").value(0));
+    }
+
+    @Test
+    @WithMockUser
+    void testStreamOpensEventStream() throws Exception {
+        when(commentStreamBroadcaster.subscribe("ARTICLE", 1L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/comments/stream")
+                        .param("contentId", "1")
+                        .param("contentType", "ARTICLE")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("X-Accel-Buffering", "no"));
     }
 
     @Test
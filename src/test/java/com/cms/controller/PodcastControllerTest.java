@@ -1,5 +1,6 @@
 package com.cms.controller;
 
+import com.cms.dto.CursorPageDto;
 import com.cms.dto.PodcastDto;
 import com.cms.service.PodcastService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -86,11 +87,11 @@ class PodcastControllerTest {
 
         List<PodcastDto.PodcastResponseDto> podcasts = Arrays.asList(podcast1, podcast2);
 
-        when(podcastService.getAll()).thenReturn(podcasts);
+        when(podcastService.getPage(null, null)).thenReturn(new CursorPageDto<>(podcasts, null));
 
         mockMvc.perform(get("/api/podcasts"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.items.length()").value(2));
     }
 
     @Test
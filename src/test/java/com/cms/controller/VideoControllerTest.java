@@ -1,5 +1,6 @@
 package com.cms.controller;
 
+import com.cms.dto.CursorPageDto;
 import com.cms.dto.VideoDto;
 import com.cms.service.VideoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -86,11 +87,11 @@ class VideoControllerTest {
 
         List<VideoDto.VideoResponseDto> videos = Arrays.asList(video1, video2);
 
-        when(videoService.getAll()).thenReturn(videos);
+        when(videoService.getPage(null, null)).thenReturn(new CursorPageDto<>(videos, null));
 
         mockMvc.perform(get("/api/videos"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.items.length()").value(2));
     }
 
     @Test
@@ -5,16 +5,22 @@ import com.cms.model.entity.Role;
 import com.cms.model.entity.User;
 import com.cms.repository.ArticleRepository;
 import com.cms.repository.UserRepository;
+import com.cms.repository.projection.ArticleSummary;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -105,6 +111,84 @@ class ArticleIntegrationTest {
         assertTrue(articles.stream().anyMatch(a -> a.getTitle().equals("Article 2")));
     }
 
+    @Test
+    void testKeysetPaginationBreaksTiesById() {
+        for (int i = 1; i <= 3; i++) {
+            Article article = new Article();
+            article.setTitle("Paged Article " + i);
+            article.setContent("Paged Content " + i);
+            article.setAuthor(testAuthor);
+            article.setPublicationDate(LocalDateTime.now());
+            articleRepository.save(article);
+        }
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE articles SET created_at = :createdAt")
+                .setParameter("createdAt", LocalDateTime.of(2024, 1, 1, 12, 0))
+                .executeUpdate();
+        entityManager.clear();
+
+        List<ArticleSummary> firstPage = articleRepository.findSummaryFirstPage(PageRequest.of(0, 2));
+        assertEquals(2, firstPage.size());
+        assertTrue(firstPage.get(0).getId() > firstPage.get(1).getId());
+        assertEquals("testauthor", firstPage.get(0).getAuthorUsername());
+
+        ArticleSummary last = firstPage.get(1);
+        List<ArticleSummary> secondPage = articleRepository.findSummaryPageAfter(last.getCreatedAt(), last.getId(),
+                PageRequest.of(0, 2));
+        assertEquals(1, secondPage.size());
+        assertTrue(secondPage.get(0).getId() < last.getId());
+    }
+
+    @Test
+    void testListingStatementCountIsConstant() {
+        persistArticlesByDistinctAuthors(1);
+        long singleArticleStatements = countListingStatements();
+
+        persistArticlesByDistinctAuthors(10);
+        long manyArticleStatements = countListingStatements();
+
+        assertEquals(1, singleArticleStatements);
+        assertEquals(singleArticleStatements, manyArticleStatements);
+    }
+
+    @Test
+    void testFindWithAuthorByIdLoadsAuthorInOneStatement() {
+        Article article = new Article();
+        article.setTitle("Detail Article");
+        article.setContent("Detail Content");
+        article.setAuthor(testAuthor);
+        article.setPublicationDate(LocalDateTime.now());
+        Long articleId = articleRepository.save(article).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        Article found = articleRepository.findWithAuthorById(articleId).orElseThrow();
+        assertTrue(Hibernate.isInitialized(found.getAuthor()));
+        assertEquals("testauthor", found.getAuthor().getUsername());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testStreamForExportFiltersByUpdatedSince() {
+        persistArticlesByDistinctAuthors(3);
+
+        try (Stream<Article> rows = articleRepository.streamForExport(null)) {
+            List<Article> all = rows.toList();
+            assertEquals(3, all.size());
+            assertTrue(all.get(0).getId() < all.get(2).getId());
+            assertTrue(Hibernate.isInitialized(all.get(0).getAuthor()));
+        }
+        entityManager.clear();
+
+        try (Stream<Article> rows = articleRepository.streamForExport(LocalDateTime.now().plusDays(1))) {
+            assertEquals(0, rows.count());
+        }
+    }
+
     @Test
     void testUpdateArticle() {
         Article article = new Article();
@@ -152,5 +236,42 @@ class ArticleIntegrationTest {
         Optional<Article> foundArticle = articleRepository.findById(articleId);
         assertFalse(foundArticle.isPresent());
     }
-}
 
+    private void persistArticlesByDistinctAuthors(int count) {
+        for (int i = 0; i < count; i++) {
+            User author = new User();
+            author.setUsername("listauthor" + System.nanoTime() + i);
+            author.setEmail(author.getUsername() + "@test.com");
+            author.setPassword("password123");
+            author.setRole(Role.USER);
+            entityManager.persist(author);
+
+            Article article = new Article();
+            article.setTitle("Listed Article " + i);
+            article.setContent("Listed Content " + i);
+            article.setAuthor(author);
+            article.setPublicationDate(LocalDateTime.now());
+            entityManager.persist(article);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long countListingStatements() {
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        List<ArticleSummary> page = articleRepository.findSummaryFirstPage(PageRequest.of(0, 100));
+        page.forEach(summary -> assertNotNull(summary.getAuthorUsername()));
+
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return statements;
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+}
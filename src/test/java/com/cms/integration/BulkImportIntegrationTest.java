@@ -0,0 +1,113 @@
+package com.cms.integration;
+
+import com.cms.dto.ImportDto;
+import com.cms.dto.VideoDto;
+import com.cms.model.entity.Video;
+import com.cms.repository.VideoRepository;
+import com.cms.service.BulkImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({BulkImportService.class, BulkImportIntegrationTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkImportIntegrationTest {
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @AfterEach
+    void tearDown() {
+        videoRepository.deleteAll();
+    }
+
+    @Test
+    void testFailedRowsAreReportedAndTheRestCommitted() {
+        String ndjson = String.join("\n",
+                video("One"),
+                video("Two"),
+                "{not json",
+                "{\"url\":\"https://example.com/v.mp4\",\"duration\":\"PT5M\"}",
+                video("Five"),
+                video("x".repeat(300)),
+                video("Seven"),
+                "");
+        List<Long> persisted = new ArrayList<>();
+
+        ImportDto.ImportResultDto result = bulkImportService.importNdjson(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), 2,
+                VideoDto.VideoRequestDto.class, this::toVideo,
+                videos -> videos.forEach(video -> persisted.add(video.getId())));
+
+        assertEquals(4, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(4, result.getChunks().size());
+
+        ImportDto.ChunkResultDto invalidRows = result.getChunks().get(1);
+        assertEquals(0, invalidRows.getImported());
+        assertEquals(3, invalidRows.getErrors().get(0).getLine());
+        assertTrue(invalidRows.getErrors().get(0).getMessage().startsWith("Invalid JSON"));
+        assertEquals(4, invalidRows.getErrors().get(1).getLine());
+        assertEquals("Title is required", invalidRows.getErrors().get(1).getMessage());
+
+        ImportDto.ChunkResultDto replayed = result.getChunks().get(2);
+        assertEquals(1, replayed.getImported());
+        assertEquals(1, replayed.getErrors().size());
+        assertEquals(6, replayed.getErrors().get(0).getLine());
+
+        assertEquals(4, videoRepository.count());
+        assertEquals(4, persisted.stream().filter(id -> videoRepository.existsById(id)).count());
+    }
+
+    private Video toVideo(VideoDto.VideoRequestDto requestDto) {
+        Video video = new Video();
+        video.setTitle(requestDto.getTitle());
+        video.setUrl(requestDto.getUrl());
+        video.setDuration(requestDto.getDuration());
+        return video;
+    }
+
+    private static String video(String title) {
+        return "{\"title\":\"" + title + "\",\"url\":\"https://example.com/v.mp4\",\"duration\":\"PT5M\"}";
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
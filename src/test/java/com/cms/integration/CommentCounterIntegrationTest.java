@@ -0,0 +1,129 @@
+package com.cms.integration;
+
+import com.cms.dto.CommentDto;
+import com.cms.exception.BadRequestException;
+import com.cms.model.document.Comment;
+import com.cms.model.document.CommentCounter;
+import com.cms.repository.CommentCounterRepository;
+import com.cms.repository.CommentRepository;
+import com.cms.service.CommentCounterService;
+import com.cms.service.ScheduledJobLock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataMongoTest
+@ActiveProfiles("test")
+@Import({CommentCounterService.class, ScheduledJobLock.class, CommentCounterIntegrationTest.Config.class})
+class CommentCounterIntegrationTest {
+    @Autowired
+    private CommentCounterService commentCounterService;
+
+    @Autowired
+    private CommentCounterRepository commentCounterRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ScheduledJobLock scheduledJobLock;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        commentRepository.deleteAll();
+        commentCounterRepository.deleteAll();
+        mongoTemplate.dropCollection("job_locks");
+        // A lease that expires at once, so consecutive runs in a test are not skipped;
+        // one id per chunk to cross range boundaries.
+        ReflectionTestUtils.setField(commentCounterService, "reconcileLockLease", 0L);
+        ReflectionTestUtils.setField(commentCounterService, "reconcileChunkSize", 1);
+    }
+
+    @Test
+    void testIncrementCreatesAndMovesCounter() {
+        commentCounterService.increment("ARTICLE", 1L, 1);
+        commentCounterService.increment("ARTICLE", 1L, 1);
+        commentCounterService.increment("ARTICLE", 1L, -1);
+        commentCounterService.increment("VIDEO", 1L, 1);
+
+        List<CommentDto.CommentCountDto> counts = commentCounterService.getCounts("ARTICLE", List.of(2L, 1L, 2L));
+
+        assertEquals(2, counts.size());
+        assertEquals(2L, counts.get(0).getContentId());
+        assertEquals(0, counts.get(0).getCount());
+        assertEquals(1L, counts.get(1).getContentId());
+        assertEquals(1, counts.get(1).getCount());
+    }
+
+    @Test
+    void testReconcileRepairsDriftedCounters() {
+        commentRepository.save(comment("ARTICLE", 1L));
+        commentRepository.save(comment("ARTICLE", 1L));
+        commentRepository.save(comment("ARTICLE", 4L));
+        commentRepository.save(comment("VIDEO", 2L));
+        commentCounterService.increment("ARTICLE", 1L, 5);
+        commentCounterService.increment("ARTICLE", 4L, 1);
+        commentCounterService.increment("PODCAST", 3L, 1);
+
+        assertEquals(3, commentCounterService.reconcile());
+
+        assertEquals(2, commentCounterService.getCounts("ARTICLE", List.of(1L)).get(0).getCount());
+        assertEquals(1, commentCounterService.getCounts("VIDEO", List.of(2L)).get(0).getCount());
+        assertFalse(commentCounterRepository.existsById(CommentCounter.key("PODCAST", 3L)));
+        assertEquals(0, commentCounterService.reconcile());
+    }
+
+    @Test
+    void testReconcileSkipsWhileAnotherNodeHoldsTheLease() {
+        commentRepository.save(comment("ARTICLE", 1L));
+        assertTrue(scheduledJobLock.tryAcquire("comment-counter-reconcile", Duration.ofMinutes(5)));
+
+        assertEquals(0, commentCounterService.reconcile());
+        assertFalse(commentCounterRepository.existsById(CommentCounter.key("ARTICLE", 1L)));
+    }
+
+    @Test
+    void testGetCountsRejectsOversizedBatch() {
+        List<Long> ids = LongStream.rangeClosed(1, CommentCounterService.MAX_BATCH_SIZE + 1)
+                .boxed()
+                .collect(Collectors.toList());
+
+        assertThrows(BadRequestException.class, () -> commentCounterService.getCounts("ARTICLE", ids));
+    }
+
+    private static Comment comment(String contentType, Long contentId) {
+        Comment comment = new Comment();
+        comment.setContentType(contentType);
+        comment.setContentId(contentId);
+        comment.setText("Comment");
+        comment.setAuthor("testuser");
+        return comment;
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -2,24 +2,40 @@ package com.cms.integration;
 
 import com.cms.model.document.Comment;
 import com.cms.repository.CommentRepository;
+import com.cms.service.CommentThreadMigration;
+import com.cms.service.ScheduledJobLock;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataMongoTest
 @ActiveProfiles("test")
+@Import({CommentThreadMigration.class, ScheduledJobLock.class})
 class CommentIntegrationTest {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private CommentThreadMigration commentThreadMigration;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @BeforeEach
     void setUp() {
         commentRepository.deleteAll();
@@ -47,31 +63,14 @@ class CommentIntegrationTest {
 
     @Test
     void testCreateNestedComment() {
-        Comment parentComment = new Comment();
-        parentComment.setContentId(1L);
-        parentComment.setContentType("ARTICLE");
-        parentComment.setText("Parent comment");
-        parentComment.setAuthor("user1");
-        parentComment.setCreatedAt(LocalDateTime.now());
-
-        Comment savedParent = commentRepository.save(parentComment);
-
-        Comment replyComment = new Comment();
-        replyComment.setContentId(1L);
-        replyComment.setContentType("ARTICLE");
-        replyComment.setText("Reply comment");
-        replyComment.setAuthor("user2");
-        replyComment.setCreatedAt(LocalDateTime.now());
-
-        Comment savedReply = commentRepository.save(replyComment);
-
-        savedParent.getReplies().add(savedReply);
-        commentRepository.save(savedParent);
-
-        Optional<Comment> foundParent = commentRepository.findById(savedParent.getId());
-        assertTrue(foundParent.isPresent());
-        assertEquals(1, foundParent.get().getReplies().size());
-        assertEquals("Reply comment", foundParent.get().getReplies().get(0).getText());
+        Comment savedParent = commentRepository.save(threadComment(null, "Parent comment"));
+        Comment savedReply = commentRepository.save(threadComment(savedParent, "Reply comment"));
+
+        Optional<Comment> foundReply = commentRepository.findById(savedReply.getId());
+        assertTrue(foundReply.isPresent());
+        assertEquals(savedParent.getId(), foundReply.get().getParentId());
+        assertEquals(savedParent.getId(), foundReply.get().getRootId());
+        assertEquals(savedParent.getPath() + "/" + savedReply.getId(), foundReply.get().getPath());
     }
 
     @Test
@@ -101,12 +100,12 @@ class CommentIntegrationTest {
         commentRepository.save(comment2);
         commentRepository.save(comment3);
 
-        List<Comment> articleComments = commentRepository.findByContentIdAndContentType(1L, "ARTICLE");
+        List<Comment> articleComments = commentRepository.findByContentIdAndContentTypeOrderByPathAsc(1L, "ARTICLE");
         assertEquals(2, articleComments.size());
         assertTrue(articleComments.stream().anyMatch(c -> c.getText().equals("Comment 1")));
         assertTrue(articleComments.stream().anyMatch(c -> c.getText().equals("Comment 2")));
 
-        List<Comment> videoComments = commentRepository.findByContentIdAndContentType(2L, "VIDEO");
+        List<Comment> videoComments = commentRepository.findByContentIdAndContentTypeOrderByPathAsc(2L, "VIDEO");
         assertEquals(1, videoComments.size());
         assertEquals("Comment 3", videoComments.get(0).getText());
     }
@@ -153,42 +152,123 @@ class CommentIntegrationTest {
     }
 
     @Test
-    void testNestedCommentStructure() {
-        Comment parent = new Comment();
-        parent.setContentId(1L);
-        parent.setContentType("ARTICLE");
-        parent.setText("Parent");
-        parent.setAuthor("user1");
-        parent.setCreatedAt(LocalDateTime.now());
-
-        Comment savedParent = commentRepository.save(parent);
-
-        Comment reply1 = new Comment();
-        reply1.setContentId(1L);
-        reply1.setContentType("ARTICLE");
-        reply1.setText("Reply 1");
-        reply1.setAuthor("user2");
-        reply1.setCreatedAt(LocalDateTime.now());
-
-        Comment reply2 = new Comment();
-        reply2.setContentId(1L);
-        reply2.setContentType("ARTICLE");
-        reply2.setText("Reply 2");
-        reply2.setAuthor("user3");
-        reply2.setCreatedAt(LocalDateTime.now());
-
-        Comment savedReply1 = commentRepository.save(reply1);
-        Comment savedReply2 = commentRepository.save(reply2);
-
-        savedParent.getReplies().add(savedReply1);
-        savedParent.getReplies().add(savedReply2);
-        commentRepository.save(savedParent);
-
-        Optional<Comment> foundParent = commentRepository.findById(savedParent.getId());
-        assertTrue(foundParent.isPresent());
-        assertEquals(2, foundParent.get().getReplies().size());
-        assertTrue(foundParent.get().getReplies().stream().anyMatch(r -> r.getText().equals("Reply 1")));
-        assertTrue(foundParent.get().getReplies().stream().anyMatch(r -> r.getText().equals("Reply 2")));
+    void testThreadIsReturnedDepthFirst() {
+        Comment first = commentRepository.save(threadComment(null, "First"));
+        Comment second = commentRepository.save(threadComment(null, "Second"));
+        Comment reply = commentRepository.save(threadComment(first, "Reply"));
+        Comment nested = commentRepository.save(threadComment(reply, "Nested"));
+        Comment laterReply = commentRepository.save(threadComment(first, "Later reply"));
+
+        List<String> texts = commentRepository.findByContentIdAndContentTypeOrderByPathAsc(1L, "ARTICLE").stream()
+                .map(Comment::getText)
+                .collect(Collectors.toList());
+        assertEquals(List.of("First", "Reply", "Nested", "Later reply", "Second"), texts);
+
+        List<Comment> subtree = commentRepository.findThread("ARTICLE", 1L, "^" + reply.getPath());
+        assertEquals(List.of(reply.getId(), nested.getId()),
+                subtree.stream().map(Comment::getId).collect(Collectors.toList()));
+
+        commentRepository.deleteThread("ARTICLE", 1L, "^" + first.getPath());
+        assertEquals(List.of(second.getId()), commentRepository.findAll().stream()
+                .map(Comment::getId)
+                .collect(Collectors.toList()));
+        assertFalse(commentRepository.existsById(laterReply.getId()));
+    }
+
+    @Test
+    void testMigrationFlattensEmbeddedReplies() {
+        ObjectId parentId = new ObjectId();
+        ObjectId replyId = new ObjectId();
+        ObjectId nestedId = new ObjectId();
+        ObjectId deletedId = new ObjectId();
+        Document nested = legacyComment(nestedId, "Nested");
+        Document reply = legacyComment(replyId, "Reply").append("replies", List.of(nested));
+        Document staleCopy = legacyComment(replyId, "Reply before edit");
+        Document deletedCopy = legacyComment(deletedId, "Deleted reply");
+        mongoTemplate.insert(legacyComment(parentId, "Parent").append("replies", List.of(staleCopy, deletedCopy)),
+                "comments");
+        mongoTemplate.insert(reply, "comments");
+        mongoTemplate.insert(nested, "comments");
+
+        assertEquals(3, commentThreadMigration.migrate());
+        assertEquals(0, commentThreadMigration.migrate());
+
+        List<Comment> thread = commentRepository.findByContentIdAndContentTypeOrderByPathAsc(1L, "ARTICLE");
+        assertEquals(List.of("Parent", "Reply", "Nested"),
+                thread.stream().map(Comment::getText).collect(Collectors.toList()));
+        assertEquals(parentId.toHexString() + "/" + replyId.toHexString() + "/" + nestedId.toHexString(),
+                thread.get(2).getPath());
+        assertEquals(parentId.toHexString(), thread.get(2).getRootId());
+        assertEquals(0, mongoTemplate.count(new Query(Criteria.where("replies").exists(true)), "comments"));
     }
-}
 
+    @Test
+    void testStartupMigrationIsSkippedOnceCompleted() {
+        mongoTemplate.dropCollection("job_locks");
+        commentThreadMigration.init();
+
+        ObjectId id = new ObjectId();
+        mongoTemplate.insert(legacyComment(id, "Legacy"), "comments");
+        commentThreadMigration.init();
+
+        assertNull(commentRepository.findById(id.toHexString()).orElseThrow().getPath());
+    }
+
+    @Test
+    void testCommentWithoutUpdatedAtKeepsItsValidator() {
+        ObjectId id = new ObjectId();
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+        mongoTemplate.insert(legacyComment(id, "Legacy")
+                .append("createdAt", createdAt)
+                .append("path", id.toHexString())
+                .append("rootId", id.toHexString()), "comments");
+
+        Comment first = commentRepository.findById(id.toHexString()).orElseThrow();
+        Comment second = commentRepository.findById(id.toHexString()).orElseThrow();
+        assertEquals(first.getUpdatedAt(), second.getUpdatedAt());
+
+        commentThreadMigration.migrate();
+
+        assertEquals(createdAt, commentRepository.findById(id.toHexString()).orElseThrow().getUpdatedAt());
+        assertEquals(createdAt, commentRepository.findById(id.toHexString()).orElseThrow().getUpdatedAt());
+    }
+
+    @Test
+    void testMigrationNormalizesContentTypes() {
+        ObjectId id = new ObjectId();
+        mongoTemplate.insert(legacyComment(id, "Lower case")
+                .append("contentType", " article")
+                .append("path", id.toHexString())
+                .append("rootId", id.toHexString()), "comments");
+
+        commentThreadMigration.migrate();
+
+        assertEquals("ARTICLE", commentRepository.findById(id.toHexString()).orElseThrow().getContentType());
+    }
+
+    private Comment threadComment(Comment parent, String text) {
+        Comment comment = new Comment();
+        comment.setId(new ObjectId().toHexString());
+        comment.setContentId(1L);
+        comment.setContentType("ARTICLE");
+        comment.setText(text);
+        comment.setAuthor("testuser");
+        if (parent == null) {
+            comment.setRootId(comment.getId());
+            comment.setPath(comment.getId());
+        } else {
+            comment.setParentId(parent.getId());
+            comment.setRootId(parent.getRootId());
+            comment.setPath(parent.getPath() + "/" + comment.getId());
+        }
+        return comment;
+    }
+
+    private Document legacyComment(ObjectId id, String text) {
+        return new Document("_id", id)
+                .append("contentId", 1L)
+                .append("contentType", "ARTICLE")
+                .append("text", text)
+                .append("author", "testuser");
+    }
+}
@@ -3,12 +3,22 @@ package com.cms.integration;
 import com.cms.model.document.JwtToken;
 import com.cms.repository.JwtTokenRepository;
 import com.cms.security.JwtTokenProvider;
+import com.cms.service.JwtTokenHashMigration;
+import com.cms.util.TokenHashUtil;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -24,6 +34,12 @@ class JwtTokenIntegrationTest {
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private JwtTokenHashMigration jwtTokenHashMigration;
+
     @BeforeEach
     void setUp() {
         jwtTokenRepository.deleteAll();
@@ -35,7 +51,7 @@ class JwtTokenIntegrationTest {
         Long userId = 1L;
 
         JwtToken jwtToken = new JwtToken();
-        jwtToken.setToken(token);
+        jwtToken.setTokenHash(TokenHashUtil.sha256(token));
         jwtToken.setUserId(userId);
         jwtToken.setExpiresAt(LocalDateTime.now().plusHours(24));
         jwtToken.setCreatedAt(LocalDateTime.now());
@@ -45,7 +61,7 @@ class JwtTokenIntegrationTest {
         assertNotNull(savedToken.getId());
         Optional<JwtToken> foundToken = jwtTokenRepository.findById(savedToken.getId());
         assertTrue(foundToken.isPresent());
-        assertEquals(token, foundToken.get().getToken());
+        assertEquals(TokenHashUtil.sha256(token), foundToken.get().getTokenHash());
         assertEquals(userId, foundToken.get().getUserId());
     }
 
@@ -54,16 +70,16 @@ class JwtTokenIntegrationTest {
         String token = jwtTokenProvider.generateToken("testuser", 1L);
 
         JwtToken jwtToken = new JwtToken();
-        jwtToken.setToken(token);
+        jwtToken.setTokenHash(TokenHashUtil.sha256(token));
         jwtToken.setUserId(1L);
         jwtToken.setExpiresAt(LocalDateTime.now().plusHours(24));
         jwtToken.setCreatedAt(LocalDateTime.now());
 
         jwtTokenRepository.save(jwtToken);
 
-        Optional<JwtToken> foundToken = jwtTokenRepository.findByToken(token);
+        Optional<JwtToken> foundToken = jwtTokenRepository.findByTokenHash(TokenHashUtil.sha256(token));
         assertTrue(foundToken.isPresent());
-        assertEquals(token, foundToken.get().getToken());
+        assertEquals(TokenHashUtil.sha256(token), foundToken.get().getTokenHash());
         assertEquals(1L, foundToken.get().getUserId());
     }
 
@@ -73,13 +89,13 @@ class JwtTokenIntegrationTest {
         String token2 = jwtTokenProvider.generateToken("testuser", 1L);
 
         JwtToken jwtToken1 = new JwtToken();
-        jwtToken1.setToken(token1);
+        jwtToken1.setTokenHash(TokenHashUtil.sha256(token1));
         jwtToken1.setUserId(1L);
         jwtToken1.setExpiresAt(LocalDateTime.now().plusHours(24));
         jwtToken1.setCreatedAt(LocalDateTime.now());
 
         JwtToken jwtToken2 = new JwtToken();
-        jwtToken2.setToken(token2);
+        jwtToken2.setTokenHash(TokenHashUtil.sha256(token2));
         jwtToken2.setUserId(1L);
         jwtToken2.setExpiresAt(LocalDateTime.now().plusHours(24));
         jwtToken2.setCreatedAt(LocalDateTime.now());
@@ -89,8 +105,8 @@ class JwtTokenIntegrationTest {
 
         List<JwtToken> userTokens = jwtTokenRepository.findByUserId(1L);
         assertEquals(2, userTokens.size());
-        assertTrue(userTokens.stream().anyMatch(t -> t.getToken().equals(token1)));
-        assertTrue(userTokens.stream().anyMatch(t -> t.getToken().equals(token2)));
+        assertTrue(userTokens.stream().anyMatch(t -> t.getTokenHash().equals(TokenHashUtil.sha256(token1))));
+        assertTrue(userTokens.stream().anyMatch(t -> t.getTokenHash().equals(TokenHashUtil.sha256(token2))));
     }
 
     @Test
@@ -98,7 +114,7 @@ class JwtTokenIntegrationTest {
         String token = jwtTokenProvider.generateToken("testuser", 1L);
 
         JwtToken jwtToken = new JwtToken();
-        jwtToken.setToken(token);
+        jwtToken.setTokenHash(TokenHashUtil.sha256(token));
         jwtToken.setUserId(1L);
         jwtToken.setExpiresAt(LocalDateTime.now().plusHours(24));
         jwtToken.setCreatedAt(LocalDateTime.now());
@@ -108,10 +124,10 @@ class JwtTokenIntegrationTest {
 
         assertTrue(jwtTokenRepository.existsById(tokenId));
 
-        jwtTokenRepository.deleteByToken(token);
+        jwtTokenRepository.deleteByTokenHash(TokenHashUtil.sha256(token));
 
         assertFalse(jwtTokenRepository.existsById(tokenId));
-        Optional<JwtToken> foundToken = jwtTokenRepository.findByToken(token);
+        Optional<JwtToken> foundToken = jwtTokenRepository.findByTokenHash(TokenHashUtil.sha256(token));
         assertFalse(foundToken.isPresent());
     }
 
@@ -121,13 +137,13 @@ class JwtTokenIntegrationTest {
         String token2 = jwtTokenProvider.generateToken("testuser", 1L);
 
         JwtToken jwtToken1 = new JwtToken();
-        jwtToken1.setToken(token1);
+        jwtToken1.setTokenHash(TokenHashUtil.sha256(token1));
         jwtToken1.setUserId(1L);
         jwtToken1.setExpiresAt(LocalDateTime.now().plusHours(24));
         jwtToken1.setCreatedAt(LocalDateTime.now());
 
         JwtToken jwtToken2 = new JwtToken();
-        jwtToken2.setToken(token2);
+        jwtToken2.setTokenHash(TokenHashUtil.sha256(token2));
         jwtToken2.setUserId(1L);
         jwtToken2.setExpiresAt(LocalDateTime.now().plusHours(24));
         jwtToken2.setCreatedAt(LocalDateTime.now());
@@ -145,34 +161,68 @@ class JwtTokenIntegrationTest {
     }
 
     @Test
-    void testDeleteByExpiresAtBefore() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime expired = now.minusHours(1);
-        LocalDateTime future = now.plusHours(24);
-
-        JwtToken expiredToken = new JwtToken();
-        expiredToken.setToken(jwtTokenProvider.generateToken("user1", 1L));
-        expiredToken.setUserId(1L);
-        expiredToken.setExpiresAt(expired);
-        expiredToken.setCreatedAt(LocalDateTime.now());
-
-        JwtToken validToken = new JwtToken();
-        validToken.setToken(jwtTokenProvider.generateToken("user2", 2L));
-        validToken.setUserId(2L);
-        validToken.setExpiresAt(future);
-        validToken.setCreatedAt(LocalDateTime.now());
-
-        jwtTokenRepository.save(expiredToken);
-        jwtTokenRepository.save(validToken);
-
-        List<JwtToken> beforeCleanup = jwtTokenRepository.findAll();
-        assertEquals(2, beforeCleanup.size());
-
-        jwtTokenRepository.deleteByExpiresAtBefore(now);
-
-        List<JwtToken> afterCleanup = jwtTokenRepository.findAll();
-        assertEquals(1, afterCleanup.size());
-        assertEquals(validToken.getToken(), afterCleanup.get(0).getToken());
+    void testIndexesDeclared() {
+        List<IndexInfo> indexes = mongoTemplate.indexOps(JwtToken.class).getIndexInfo();
+
+        IndexInfo tokenHashIndex = indexes.stream()
+                .filter(index -> index.isIndexForFields(List.of("tokenHash")))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(tokenHashIndex.isUnique());
+        assertFalse(tokenHashIndex.isSparse());
+
+        assertTrue(indexes.stream().anyMatch(index -> index.isIndexForFields(List.of("userId"))));
+
+        IndexInfo expiresAtIndex = indexes.stream()
+                .filter(index -> index.isIndexForFields(List.of("expiresAt")))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(Duration.ZERO, expiresAtIndex.getExpireAfter().orElseThrow());
+    }
+
+    @Test
+    void testMigrationHashesLegacyTokens() {
+        // The collection as it was before the upgrade: legacy documents next
+        // to hashed ones, under the sparse index that let them coexist.
+        if (mongoTemplate.indexOps(JwtToken.class).getIndexInfo().stream()
+                .anyMatch(index -> index.getName().equals("tokenHash"))) {
+            mongoTemplate.indexOps(JwtToken.class).dropIndex("tokenHash");
+        }
+        mongoTemplate.indexOps(JwtToken.class).ensureIndex(
+                new Index().on("tokenHash", Sort.Direction.ASC).unique().sparse().named("tokenHash"));
+        String legacyToken = jwtTokenProvider.generateToken("legacy", 1L);
+        String hashedToken = jwtTokenProvider.generateToken("hashed", 2L);
+        mongoTemplate.insert(new Document("token", legacyToken).append("userId", 1L), "jwt_tokens");
+        mongoTemplate.insert(new Document("tokenHash", TokenHashUtil.sha256(hashedToken)).append("userId", 2L),
+                "jwt_tokens");
+        mongoTemplate.insert(new Document("token", hashedToken).append("userId", 2L), "jwt_tokens");
+        mongoTemplate.insert(new Document("userId", 3L), "jwt_tokens");
+
+        assertEquals(1, jwtTokenHashMigration.migrate());
+
+        Optional<JwtToken> migrated = jwtTokenRepository.findByTokenHash(TokenHashUtil.sha256(legacyToken));
+        assertTrue(migrated.isPresent());
+        assertEquals(1L, migrated.get().getUserId());
+        assertTrue(jwtTokenRepository.findByTokenHash(TokenHashUtil.sha256(hashedToken)).isPresent());
+        assertEquals(2, jwtTokenRepository.count());
+        assertFalse(mongoTemplate.exists(new Query(Criteria.where("token").exists(true)), "jwt_tokens"));
+
+        IndexInfo tokenHashIndex = mongoTemplate.indexOps(JwtToken.class).getIndexInfo().stream()
+                .filter(index -> index.isIndexForFields(List.of("tokenHash")))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(tokenHashIndex.isUnique());
+        assertFalse(tokenHashIndex.isSparse());
+    }
+
+    @Test
+    void testTokenHashIsFixedLength() {
+        String shortToken = jwtTokenProvider.generateToken("u", 1L);
+        String longToken = jwtTokenProvider.generateToken("a-much-longer-username-for-a-longer-token", 123456789L);
+
+        assertEquals(64, TokenHashUtil.sha256(shortToken).length());
+        assertEquals(64, TokenHashUtil.sha256(longToken).length());
+        assertNotEquals(TokenHashUtil.sha256(shortToken), TokenHashUtil.sha256(longToken));
     }
 
     @Test
@@ -180,7 +230,7 @@ class JwtTokenIntegrationTest {
         String validToken = jwtTokenProvider.generateToken("testuser", 1L);
 
         JwtToken jwtToken = new JwtToken();
-        jwtToken.setToken(validToken);
+        jwtToken.setTokenHash(TokenHashUtil.sha256(validToken));
         jwtToken.setUserId(1L);
         jwtToken.setExpiresAt(LocalDateTime.now().plusHours(24));
         jwtToken.setCreatedAt(LocalDateTime.now());
@@ -188,12 +238,12 @@ class JwtTokenIntegrationTest {
         jwtTokenRepository.save(jwtToken);
 
         assertTrue(jwtTokenProvider.validateToken(validToken));
-        assertTrue(jwtTokenRepository.findByToken(validToken).isPresent());
+        assertTrue(jwtTokenRepository.findByTokenHash(TokenHashUtil.sha256(validToken)).isPresent());
 
-        jwtTokenRepository.deleteByToken(validToken);
+        jwtTokenRepository.deleteByTokenHash(TokenHashUtil.sha256(validToken));
 
         assertTrue(jwtTokenProvider.validateToken(validToken));
-        assertFalse(jwtTokenRepository.findByToken(validToken).isPresent());
+        assertFalse(jwtTokenRepository.findByTokenHash(TokenHashUtil.sha256(validToken)).isPresent());
     }
 }
 
@@ -0,0 +1,123 @@
+package com.cms.integration;
+
+import com.cms.model.entity.Podcast;
+import com.cms.model.entity.Role;
+import com.cms.model.entity.User;
+import com.cms.model.entity.Video;
+import com.cms.repository.PodcastRepository;
+import com.cms.repository.UserRepository;
+import com.cms.repository.VideoRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class SecondLevelCacheIntegrationTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private PodcastRepository podcastRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+    }
+
+    @Test
+    void testVideoIsServedFromSecondLevelCache() {
+        Video video = new Video();
+        video.setTitle("Cached Video");
+        video.setUrl("https://example.com/video.mp4");
+        video.setDuration(Duration.ofMinutes(5));
+        Long videoId = entityManager.persistAndFlush(video).getId();
+        entityManager.clear();
+
+        videoRepository.findById(videoId);
+        entityManager.clear();
+        statistics.clear();
+
+        assertTrue(videoRepository.findById(videoId).isPresent());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testPodcastEpisodesAreServedFromSecondLevelCache() {
+        Podcast podcast = new Podcast();
+        podcast.setTitle("Cached Podcast");
+        podcast.setAudioUrl("https://example.com/podcast.mp3");
+        podcast.setEpisodes(new ArrayList<>(List.of("Episode 1", "Episode 2")));
+        Long podcastId = entityManager.persistAndFlush(podcast).getId();
+        entityManager.clear();
+
+        podcastRepository.findById(podcastId).orElseThrow().getEpisodes().size();
+        entityManager.clear();
+        statistics.clear();
+
+        Podcast cached = podcastRepository.findById(podcastId).orElseThrow();
+        assertEquals(2, cached.getEpisodes().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testPodcastEpisodesKeepTheirOrder() {
+        Podcast podcast = new Podcast();
+        podcast.setTitle("Ordered Podcast");
+        podcast.setAudioUrl("https://example.com/podcast.mp3");
+        podcast.setEpisodes(new ArrayList<>(List.of("Trailer", "Episode 2", "Episode 1")));
+        Long podcastId = entityManager.persistAndFlush(podcast).getId();
+        entityManager.clear();
+
+        Podcast loaded = podcastRepository.findById(podcastId).orElseThrow();
+        assertEquals(List.of("Trailer", "Episode 2", "Episode 1"), loaded.getEpisodes());
+        loaded.getEpisodes().set(0, "Episode 1");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(List.of("Episode 1", "Episode 2", "Episode 1"),
+                podcastRepository.findById(podcastId).orElseThrow().getEpisodes());
+    }
+
+    @Test
+    void testUsernameLookupUsesQueryCache() {
+        User user = new User();
+        user.setUsername("cacheduser");
+        user.setEmail("cached@test.com");
+        user.setPassword("password123");
+        user.setRole(Role.USER);
+        entityManager.persistAndFlush(user);
+        entityManager.clear();
+
+        userRepository.findByUsername("cacheduser");
+        entityManager.clear();
+        statistics.clear();
+
+        assertTrue(userRepository.findByUsername("cacheduser").isPresent());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,94 @@
+package com.cms.security;
+
+import com.cms.controller.VideoController;
+import com.cms.dto.VideoDto;
+import com.cms.model.entity.Role;
+import com.cms.service.JwtTokenService;
+import com.cms.service.VideoService;
+import com.cms.util.SecurityUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs a streamed response through the real security chain with a bearer
+ * token, so the ASYNC dispatch that writes the body is authorized the way it
+ * is in production rather than by a mock user.
+ */
+@WebMvcTest(VideoController.class)
+@Import({SecurityConfig.class, JwtTokenProvider.class, SecurityUtil.class, AsyncDispatchSecurityTest.Config.class})
+class AsyncDispatchSecurityTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private VideoService videoService;
+
+    @MockBean
+    private JwtTokenService jwtTokenService;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportWithBearerTokenCompletesAsyncDispatch() throws Exception {
+        String token = jwtTokenProvider.generateToken("admin", 1L);
+        when(jwtTokenService.isTokenActive(eq(token), any())).thenReturn(true);
+        when(userDetailsService.loadUserByUsername("admin"))
+                .thenReturn(new CmsUserDetails(1L, "admin", "admin@example.com", "hash", Role.ADMIN));
+        VideoDto.VideoResponseDto video = new VideoDto.VideoResponseDto();
+        video.setId(1L);
+        video.setTitle("Exported");
+        doAnswer(invocation -> {
+            ((Consumer<VideoDto.VideoResponseDto>) invocation.getArgument(1)).accept(video);
+            return null;
+        }).when(videoService).export(any(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/videos/export")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"title\":\"Exported\"")));
+    }
+
+    @Test
+    void testExportWithoutTokenIsRejected() throws Exception {
+        mockMvc.perform(get("/api/videos/export"))
+                .andExpect(status().isForbidden());
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
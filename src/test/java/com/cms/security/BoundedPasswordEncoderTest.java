@@ -0,0 +1,93 @@
+package com.cms.security;
+
+import com.cms.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void testDelegatesToWrappedEncoder() {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(false), 1, 1, meterRegistry);
+
+        assertEquals("encoded:secret", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "encoded:secret"));
+        assertFalse(encoder.matches("other", "encoded:secret"));
+        assertEquals(3, meterRegistry.get("cms.password.hashing").timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum());
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(true), 1, 1, meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        waitForQueuedTask();
+
+        assertThrows(ServiceUnavailableException.class, () -> encoder.encode("third"));
+        assertEquals(1.0, meterRegistry.get("cms.password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("encoded:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("encoded:second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private void waitForQueuedTask() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("cms.password.hashing.queue").gauge().value() < 1) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Task was not queued");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+        private final boolean block;
+
+        private BlockingEncoder(boolean block) {
+            this.block = block;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (block) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "encoded:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.cms.security;
+
+import com.cms.controller.CommentController;
+import com.cms.model.entity.Role;
+import com.cms.service.CommentCounterService;
+import com.cms.service.CommentService;
+import com.cms.service.CommentStreamBroadcaster;
+import com.cms.service.JwtTokenService;
+import com.cms.util.SecurityUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The client contract for browser EventSource subscribers: the JWT travels as
+ * the {@code access_token} query parameter, which only the stream accepts.
+ */
+@WebMvcTest(CommentController.class)
+@Import({SecurityConfig.class, JwtTokenProvider.class, SecurityUtil.class, CommentStreamSecurityTest.Config.class})
+class CommentStreamSecurityTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private CommentService commentService;
+
+    @MockBean
+    private CommentCounterService commentCounterService;
+
+    @MockBean
+    private CommentStreamBroadcaster commentStreamBroadcaster;
+
+    @MockBean
+    private JwtTokenService jwtTokenService;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @Test
+    void testStreamAcceptsTokenAsQueryParameter() throws Exception {
+        String token = activeToken();
+        when(commentStreamBroadcaster.subscribe("ARTICLE", 1L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/comments/stream")
+                        .param("contentId", "1")
+                        .param("contentType", "ARTICLE")
+                        .param("access_token", token))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void testStreamWithoutTokenIsRejected() throws Exception {
+        mockMvc.perform(get("/api/comments/stream")
+                        .param("contentId", "1")
+                        .param("contentType", "ARTICLE"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(commentStreamBroadcaster);
+    }
+
+    @Test
+    void testQueryParameterTokenIsIgnoredOutsideTheStream() throws Exception {
+        String token = activeToken();
+
+        mockMvc.perform(get("/api/comments")
+                        .param("contentId", "1")
+                        .param("contentType", "ARTICLE")
+                        .param("access_token", token))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(commentService);
+    }
+
+    private String activeToken() {
+        String token = jwtTokenProvider.generateToken("reader", 2L);
+        when(jwtTokenService.isTokenActive(eq(token), any())).thenReturn(true);
+        when(userDetailsService.loadUserByUsername("reader"))
+                .thenReturn(new CmsUserDetails(2L, "reader", "reader@example.com", "hash", Role.USER));
+        return token;
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
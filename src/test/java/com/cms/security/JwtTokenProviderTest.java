@@ -1,5 +1,6 @@
 package com.cms.security;
 
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,6 +24,8 @@ class JwtTokenProviderTest {
         ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", 
                 "cms-jwt-secret-key-for-media-portal-application-2024-test");
         ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "accessTokenExpiration", 900000L);
+        jwtTokenProvider.init();
         testToken = jwtTokenProvider.generateToken(testUsername, testUserId);
     }
 
@@ -55,9 +58,26 @@ class JwtTokenProviderTest {
         assertFalse(jwtTokenProvider.validateToken(invalidToken));
     }
 
+    @Test
+    void testParseClaims() {
+        Claims claims = jwtTokenProvider.parseClaims(testToken);
+        assertEquals(testUsername, claims.getSubject());
+        assertEquals(testUserId, jwtTokenProvider.getUserId(claims));
+        assertNotNull(claims.getExpiration());
+    }
+
     @Test
     void testGetExpirationDateFromToken() {
         assertNotNull(jwtTokenProvider.getExpirationDateFromToken(testToken));
     }
-}
 
+    @Test
+    void testGenerateAccessToken() {
+        String accessToken = jwtTokenProvider.generateAccessToken(testUsername, testUserId);
+        Claims claims = jwtTokenProvider.parseClaims(accessToken);
+
+        assertNotNull(claims.getId());
+        assertTrue(claims.getExpiration().getTime() - claims.getIssuedAt().getTime() <= 900000L);
+        assertNotEquals(claims.getId(), jwtTokenProvider.parseClaims(testToken).getId());
+    }
+}
@@ -0,0 +1,90 @@
+package com.cms.security;
+
+import com.cms.model.entity.Role;
+import com.cms.model.entity.User;
+import com.cms.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsServiceImplTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserDetailsServiceImpl userDetailsService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userDetailsService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userDetailsService, "cacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(userDetailsService, "cacheTtl", 300000L);
+        userDetailsService.init();
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("encodedPassword");
+        testUser.setRole(Role.ADMIN);
+    }
+
+    @Test
+    void testLoadUserByUsernameIsCached() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        UserDetails first = userDetailsService.loadUserByUsername("testuser");
+        UserDetails second = userDetailsService.loadUserByUsername("testuser");
+
+        assertEquals("testuser", second.getUsername());
+        assertEquals("ROLE_ADMIN", second.getAuthorities().iterator().next().getAuthority());
+        assertNotSame(first, second);
+        verify(userRepository, times(1)).findByUsername("testuser");
+    }
+
+    @Test
+    void testErasedCredentialsDoNotLeakIntoCache() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        CmsUserDetails first = (CmsUserDetails) userDetailsService.loadUserByUsername("testuser");
+        first.eraseCredentials();
+
+        assertEquals("encodedPassword", userDetailsService.loadUserByUsername("testuser").getPassword());
+    }
+
+    @Test
+    void testEvictUserReloadsFromDatabase() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        userDetailsService.loadUserByUsername("testuser");
+        userDetailsService.evictUser("testuser");
+        userDetailsService.loadUserByUsername("testuser");
+
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
+
+    @Test
+    void testUnknownUserIsNotCached() {
+        when(userRepository.findByUsername("missing")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("missing"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("missing"));
+
+        verify(userRepository, times(2)).findByUsername("missing");
+    }
+}
@@ -0,0 +1,111 @@
+package com.cms.service;
+
+import com.cms.config.CacheConfig;
+import com.cms.dto.ArticleDto;
+import com.cms.model.entity.Article;
+import com.cms.model.entity.Role;
+import com.cms.model.entity.User;
+import com.cms.repository.ArticleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig({CacheConfig.class, ArticleService.class})
+class ArticleServiceCacheTest {
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private ArticleRepository articleRepository;
+
+    // Backs the @PersistenceContext EntityManager proxy in ArticleService.
+    @MockBean
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @MockBean
+    private TitleSearchService titleSearchService;
+
+    @MockBean
+    private BulkImportService bulkImportService;
+
+    @MockBean
+    private CommentCleanupService commentCleanupService;
+
+    private Article testArticle;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.ARTICLES).clear();
+
+        User author = new User();
+        author.setId(1L);
+        author.setUsername("author");
+        author.setRole(Role.USER);
+
+        testArticle = new Article();
+        testArticle.setId(1L);
+        testArticle.setTitle("Test Article");
+        testArticle.setContent("Test Content");
+        testArticle.setAuthor(author);
+        testArticle.setPublicationDate(LocalDateTime.now());
+        testArticle.setCreatedAt(LocalDateTime.now());
+    }
+
+    @Test
+    void testGetByIdIsServedFromCache() {
+        when(articleRepository.findWithAuthorById(1L)).thenReturn(Optional.of(testArticle));
+
+        articleService.getById(1L);
+        ArticleDto.ArticleResponseDto cached = articleService.getById(1L);
+
+        assertEquals("Test Article", cached.getTitle());
+        verify(articleRepository, times(1)).findWithAuthorById(1L);
+    }
+
+    @Test
+    void testUpdateEvictsEntry() {
+        when(articleRepository.findWithAuthorById(1L)).thenReturn(Optional.of(testArticle));
+        when(articleRepository.saveAndFlush(any(Article.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        articleService.getById(1L);
+
+        ArticleDto.ArticleRequestDto requestDto = new ArticleDto.ArticleRequestDto();
+        requestDto.setTitle("Updated Article");
+        requestDto.setContent("Updated Content");
+        articleService.update(1L, requestDto);
+
+        assertEquals("Updated Article", articleService.getById(1L).getTitle());
+        verify(articleRepository, times(3)).findWithAuthorById(1L);
+    }
+
+    @Test
+    void testDeleteEvictsEntry() {
+        when(articleRepository.findWithAuthorById(1L)).thenReturn(Optional.of(testArticle));
+        when(articleRepository.existsById(1L)).thenReturn(true);
+
+        articleService.getById(1L);
+        articleService.delete(1L);
+
+        assertNull(cacheManager.getCache(CacheConfig.ARTICLES).get(1L));
+    }
+}
@@ -1,21 +1,31 @@
 package com.cms.service;
 
 import com.cms.dto.ArticleDto;
+import com.cms.dto.CursorPageDto;
+import com.cms.exception.BadRequestException;
 import com.cms.exception.ResourceNotFoundException;
 import com.cms.model.entity.Article;
 import com.cms.model.entity.Role;
 import com.cms.model.entity.User;
 import com.cms.repository.ArticleRepository;
+import com.cms.repository.projection.ArticleSearchHit;
+import com.cms.repository.projection.ArticleSummary;
+import com.cms.util.CursorUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +41,15 @@ class ArticleServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Mock
+    private TitleSearchService titleSearchService;
+
+    @Mock
+    private CommentCleanupService commentCleanupService;
+
     @InjectMocks
     private ArticleService articleService;
 
@@ -73,7 +92,7 @@ class ArticleServiceTest {
 
     @Test
     void testGetArticleById() {
-        when(articleRepository.findById(1L)).thenReturn(Optional.of(testArticle));
+        when(articleRepository.findWithAuthorById(1L)).thenReturn(Optional.of(testArticle));
 
         ArticleDto.ArticleResponseDto response = articleService.getById(1L);
 
@@ -84,26 +103,115 @@ class ArticleServiceTest {
 
     @Test
     void testGetArticleByIdNotFound() {
-        when(articleRepository.findById(1L)).thenReturn(Optional.empty());
+        when(articleRepository.findWithAuthorById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> articleService.getById(1L));
     }
 
     @Test
     void testGetAllArticles() {
-        Article article2 = new Article();
-        article2.setId(2L);
-        article2.setTitle("Article 2");
-        article2.setContent("Content 2");
-        article2.setAuthor(testAuthor);
+        List<ArticleSummary> summaries = Arrays.asList(
+                summary(1L, "Test Article", LocalDateTime.now()),
+                summary(2L, "Article 2", LocalDateTime.now()));
+        when(articleRepository.findSummaryFirstPage(any(Pageable.class))).thenReturn(summaries);
 
-        List<Article> articles = Arrays.asList(testArticle, article2);
-        when(articleRepository.findAll()).thenReturn(articles);
-
-        List<ArticleDto.ArticleResponseDto> response = articleService.getAll();
+        CursorPageDto<ArticleDto.ArticleSummaryDto> response = articleService.getPage(null, null);
 
         assertNotNull(response);
-        assertEquals(2, response.size());
+        assertEquals(2, response.getItems().size());
+        assertEquals("author", response.getItems().get(0).getAuthorUsername());
+        assertNull(response.getNextCursor());
+        verify(articleRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetPageReturnsCursorWhenMoreRowsExist() {
+        ArticleSummary first = summary(1L, "Test Article", LocalDateTime.of(2024, 1, 2, 12, 0));
+        ArticleSummary second = summary(2L, "Article 2", LocalDateTime.of(2024, 1, 1, 12, 0));
+        when(articleRepository.findSummaryFirstPage(PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(first, second));
+
+        CursorPageDto<ArticleDto.ArticleSummaryDto> page = articleService.getPage(null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+
+        when(articleRepository.findSummaryPageAfter(LocalDateTime.of(2024, 1, 2, 12, 0), 1L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(second));
+
+        CursorPageDto<ArticleDto.ArticleSummaryDto> next = articleService.getPage(page.getNextCursor(), 1);
+
+        assertEquals(2L, next.getItems().get(0).getId());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void testGetPageCapsLimit() {
+        when(articleRepository.findSummaryFirstPage(any(Pageable.class))).thenReturn(List.of());
+
+        articleService.getPage(null, 10000);
+
+        verify(articleRepository).findSummaryFirstPage(PageRequest.of(0, CursorUtil.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void testSearchReturnsOffsetCursorWhenMoreMatchesExist() {
+        when(articleRepository.search("spring boot", 2, 0))
+                .thenReturn(Arrays.asList(searchHit(3L, 0.9f), searchHit(1L, 0.4f)));
+
+        CursorPageDto<ArticleDto.ArticleSearchResultDto> page = articleService.search("  spring boot ", null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(3L, page.getItems().get(0).getId());
+        assertEquals("<mark>spring</mark> and <mark>boot</mark>", page.getItems().get(0).getSnippet());
+        assertNotNull(page.getNextCursor());
+
+        when(articleRepository.search("spring boot", 2, 1)).thenReturn(List.of(searchHit(1L, 0.4f)));
+
+        CursorPageDto<ArticleDto.ArticleSearchResultDto> next = articleService.search("spring boot", page.getNextCursor(), 1);
+
+        assertEquals(1L, next.getItems().get(0).getId());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void testSearchRejectsBlankQuery() {
+        assertThrows(BadRequestException.class, () -> articleService.search("  ", null, null));
+        verifyNoInteractions(articleRepository);
+    }
+
+    @Test
+    void testSearchRejectsKeysetCursor() {
+        String keysetCursor = CursorUtil.encode(LocalDateTime.now(), 1L);
+
+        assertThrows(BadRequestException.class, () -> articleService.search("spring", keysetCursor, null));
+    }
+
+    @Test
+    void testCreateComputesExcerptAndReadingTime() {
+        ArticleDto.ArticleRequestDto requestDto = new ArticleDto.ArticleRequestDto();
+        requestDto.setTitle("Long Article");
+        requestDto.setContent("word ".repeat(450));
+
+        when(userService.findById(1L)).thenReturn(testAuthor);
+        when(articleRepository.save(any(Article.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ArticleDto.ArticleResponseDto response = articleService.create(requestDto, 1L);
+
+        assertEquals(3, response.getReadingTimeMinutes());
+        assertTrue(response.getExcerpt().length() <= 281);
+        assertTrue(response.getExcerpt().endsWith("…"));
+    }
+
+    @Test
+    void testShortContentExcerptIsWholeText() {
+        assertEquals("Short text", ArticleService.buildExcerpt("  Short \n text "));
+        assertEquals(1, ArticleService.readingTimeMinutes("Short text"));
+    }
+
+    @Test
+    void testGetPageRejectsInvalidCursor() {
+        assertThrows(BadRequestException.class, () -> articleService.getPage("not-a-cursor", null));
     }
 
     @Test
@@ -112,13 +220,13 @@ class ArticleServiceTest {
         requestDto.setTitle("Updated Article");
         requestDto.setContent("Updated Content");
 
-        when(articleRepository.findById(1L)).thenReturn(Optional.of(testArticle));
-        when(articleRepository.save(any(Article.class))).thenReturn(testArticle);
+        when(articleRepository.findWithAuthorById(1L)).thenReturn(Optional.of(testArticle));
+        when(articleRepository.saveAndFlush(any(Article.class))).thenReturn(testArticle);
 
         ArticleDto.ArticleResponseDto response = articleService.update(1L, requestDto);
 
         assertNotNull(response);
-        verify(articleRepository, times(1)).save(any(Article.class));
+        verify(articleRepository, times(1)).saveAndFlush(any(Article.class));
     }
 
     @Test
@@ -126,11 +234,26 @@ class ArticleServiceTest {
         ArticleDto.ArticleRequestDto requestDto = new ArticleDto.ArticleRequestDto();
         requestDto.setTitle("Updated Article");
 
-        when(articleRepository.findById(1L)).thenReturn(Optional.empty());
+        when(articleRepository.findWithAuthorById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> articleService.update(1L, requestDto));
     }
 
+    @Test
+    void testPatchArticleKeepsFieldsNotGiven() {
+        ArticleDto.ArticlePatchDto patchDto = new ArticleDto.ArticlePatchDto();
+        patchDto.setTitle("Patched Article");
+
+        when(articleRepository.findWithAuthorById(1L)).thenReturn(Optional.of(testArticle));
+        when(articleRepository.saveAndFlush(any(Article.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ArticleDto.ArticleResponseDto response = articleService.patch(1L, patchDto);
+
+        assertEquals("Patched Article", response.getTitle());
+        assertEquals("Test Content", response.getContent());
+        verify(titleSearchService).index(TitleSearchIndex.ContentType.ARTICLE, 1L, "Patched Article");
+    }
+
     @Test
     void testDeleteArticle() {
         when(articleRepository.existsById(1L)).thenReturn(true);
@@ -139,6 +262,8 @@ class ArticleServiceTest {
         articleService.delete(1L);
 
         verify(articleRepository, times(1)).deleteById(1L);
+        verify(commentCleanupService).deleteForContent(TitleSearchIndex.ContentType.ARTICLE, 1L);
+        verify(titleSearchService).remove(TitleSearchIndex.ContentType.ARTICLE, 1L);
     }
 
     @Test
@@ -147,6 +272,27 @@ class ArticleServiceTest {
 
         assertThrows(ResourceNotFoundException.class, () -> articleService.delete(1L));
         verify(articleRepository, never()).deleteById(any());
+        verifyNoInteractions(commentCleanupService);
     }
-}
 
+    private ArticleSummary summary(Long id, String title, LocalDateTime createdAt) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", id);
+        values.put("title", title);
+        values.put("authorId", testAuthor.getId());
+        values.put("authorUsername", testAuthor.getUsername());
+        values.put("createdAt", createdAt);
+        return new SpelAwareProxyProjectionFactory().createProjection(ArticleSummary.class, values);
+    }
+
+    private ArticleSearchHit searchHit(Long id, float rank) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", id);
+        values.put("title", "Article " + id);
+        values.put("authorId", 1L);
+        values.put("authorUsername", "author");
+        values.put("rank", rank);
+        values.put("snippet", "<mark>spring</mark> and <mark>boot</mark>");
+        return new SpelAwareProxyProjectionFactory().createProjection(ArticleSearchHit.class, values);
+    }
+}
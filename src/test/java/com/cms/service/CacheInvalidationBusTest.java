@@ -0,0 +1,123 @@
+package com.cms.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationBusTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CacheInvalidationListener listener;
+
+    @InjectMocks
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager("articles", "comments");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cacheInvalidationBus, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(cacheInvalidationBus, "listeners", List.of(listener));
+        ReflectionTestUtils.setField(cacheInvalidationBus, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cacheInvalidationBus, "enabled", false);
+        cacheInvalidationBus.start();
+
+        cacheManager.getCache("articles").put(1L, "article");
+        cacheManager.getCache("comments").put("ARTICLE:1", "comments");
+    }
+
+    @Test
+    void testRemoteInvalidationEvictsTypedKey() {
+        cacheInvalidationBus.handle("other-node|articles|L|1");
+        cacheInvalidationBus.handle("other-node|comments|S|ARTICLE:1");
+
+        assertNull(cacheManager.getCache("articles").get(1L));
+        assertNull(cacheManager.getCache("comments").get("ARTICLE:1"));
+        verify(listener).onInvalidate("articles", 1L);
+        verify(listener).onInvalidate("comments", "ARTICLE:1");
+    }
+
+    @Test
+    void testRemoteBatchInvalidationEvictsEveryKey() {
+        cacheManager.getCache("articles").put(2L, "article");
+
+        cacheInvalidationBus.handle("other-node|articles|N|1,2,3");
+
+        assertNull(cacheManager.getCache("articles").get(1L));
+        assertNull(cacheManager.getCache("articles").get(2L));
+        verify(listener).onInvalidate("articles", 3L);
+    }
+
+    @Test
+    void testPublishAllSplitsLargeBatches() {
+        ReflectionTestUtils.setField(cacheInvalidationBus, "enabled", true);
+        List<Long> ids = LongStream.rangeClosed(1_000_000, 1_002_000).boxed().toList();
+
+        cacheInvalidationBus.publishAll("articles", ids);
+
+        verify(jdbcTemplate, times(3)).execute(anyString(), any(PreparedStatementCallback.class));
+    }
+
+    @Test
+    void testOwnMessagesAreIgnored() {
+        String nodeId = (String) ReflectionTestUtils.getField(cacheInvalidationBus, "nodeId");
+
+        cacheInvalidationBus.handle(nodeId + "|articles|L|1");
+
+        assertNotNull(cacheManager.getCache("articles").get(1L));
+        verifyNoInteractions(listener);
+    }
+
+    @Test
+    void testFlushClearsEveryCache() {
+        cacheInvalidationBus.handle("other-node|*|S|");
+
+        assertNull(cacheManager.getCache("articles").get(1L));
+        assertNull(cacheManager.getCache("comments").get("ARTICLE:1"));
+        verify(listener).onFlush();
+    }
+
+    @Test
+    void testMalformedKeyFallsBackToFlush() {
+        cacheInvalidationBus.handle("other-node|articles|L|not-a-number");
+
+        assertNull(cacheManager.getCache("comments").get("ARTICLE:1"));
+        verify(listener).onFlush();
+    }
+
+    @Test
+    void testPublishIssuesNotifyWhenEnabled() {
+        ReflectionTestUtils.setField(cacheInvalidationBus, "enabled", true);
+
+        cacheInvalidationBus.publish("articles", 1L);
+
+        verify(jdbcTemplate).execute(anyString(), any(PreparedStatementCallback.class));
+    }
+
+    @Test
+    void testPublishIsNoOpWhenDisabled() {
+        cacheInvalidationBus.publish("articles", 1L);
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
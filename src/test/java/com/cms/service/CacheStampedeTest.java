@@ -0,0 +1,180 @@
+package com.cms.service;
+
+import com.cms.config.CacheConfig;
+import com.cms.dto.CommentDto;
+import com.cms.dto.CursorPageDto;
+import com.cms.model.document.Comment;
+import com.cms.model.entity.Article;
+import com.cms.model.entity.Role;
+import com.cms.model.entity.User;
+import com.cms.repository.ArticleRepository;
+import com.cms.repository.CommentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig({CacheConfig.class, ArticleService.class, CommentService.class})
+@TestPropertySource(properties = {
+        "cms.cache.articles.refresh-after=200",
+        "cms.cache.articles.ttl=60000"
+})
+class CacheStampedeTest {
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private ArticleRepository articleRepository;
+
+    // Backs the @PersistenceContext EntityManager proxy in ArticleService.
+    @MockBean
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private CommentRepository commentRepository;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @MockBean
+    private CommentCounterService commentCounterService;
+
+    @MockBean
+    private CommentStreamBroadcaster commentStreamBroadcaster;
+
+    @MockBean
+    private TitleSearchService titleSearchService;
+
+    @MockBean
+    private BulkImportService bulkImportService;
+
+    @MockBean
+    private CommentCleanupService commentCleanupService;
+
+    private Article testArticle;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.ARTICLES).clear();
+        cacheManager.getCache(CacheConfig.COMMENTS).clear();
+
+        User author = new User();
+        author.setId(1L);
+        author.setUsername("author");
+        author.setRole(Role.USER);
+
+        testArticle = new Article();
+        testArticle.setId(1L);
+        testArticle.setTitle("Hot Article");
+        testArticle.setContent("Hot Content");
+        testArticle.setAuthor(author);
+        testArticle.setPublicationDate(LocalDateTime.now());
+        testArticle.setCreatedAt(LocalDateTime.now());
+    }
+
+    @Test
+    void testConcurrentArticleMissesShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(articleRepository.findWithAuthorById(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(testArticle);
+        });
+
+        List<Object> results = runConcurrently(() -> articleService.getById(1L), release);
+
+        results.forEach(result -> assertSame(results.get(0), result));
+        verify(articleRepository, times(1)).findWithAuthorById(1L);
+    }
+
+    @Test
+    void testConcurrentCommentMissesShareOneLoad() throws Exception {
+        Comment comment = new Comment();
+        comment.setId("comment-id");
+        comment.setContentId(1L);
+        comment.setContentType("ARTICLE");
+        comment.setText("Hot comment");
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(commentRepository.findTopLevelFirstPage(eq("ARTICLE"), eq(1L), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return List.of(comment);
+                });
+
+        List<Object> results = runConcurrently(() -> commentService.getPage(1L, "ARTICLE", null, null), release);
+
+        results.forEach(result -> assertEquals(1, ((CursorPageDto<?>) result).getItems().size()));
+        assertInstanceOf(CommentDto.CommentResponseDto.class, ((CursorPageDto<?>) results.get(0)).getItems().get(0));
+        verify(commentRepository, times(1)).findTopLevelFirstPage(eq("ARTICLE"), eq(1L), any(Pageable.class));
+    }
+
+    @Test
+    void testEarlyRefreshReloadsOnceBeforeExpiry() throws Exception {
+        when(articleRepository.findWithAuthorById(1L)).thenReturn(Optional.of(testArticle));
+
+        articleService.getById(1L);
+        Thread.sleep(300);
+        testArticle.setTitle("Refreshed Article");
+
+        assertEquals("Refreshed Article", articleService.getById(1L).getTitle());
+        assertEquals("Refreshed Article", articleService.getById(1L).getTitle());
+        verify(articleRepository, times(2)).findWithAuthorById(1L);
+    }
+
+    private List<Object> runConcurrently(Supplier<Object> call, CountDownLatch release) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch ready = new CountDownLatch(THREADS);
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    return call.get();
+                }));
+            }
+            assertTrue(ready.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            release.countDown();
+
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
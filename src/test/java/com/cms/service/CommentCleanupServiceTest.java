@@ -0,0 +1,109 @@
+package com.cms.service;
+
+import com.cms.repository.ArticleRepository;
+import com.cms.repository.CommentRepository;
+import com.cms.repository.PodcastRepository;
+import com.cms.repository.VideoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentCleanupServiceTest {
+    @Mock
+    private CommentService commentService;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private PodcastRepository podcastRepository;
+
+    @Mock
+    private ScheduledJobLock scheduledJobLock;
+
+    @InjectMocks
+    private CommentCleanupService commentCleanupService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(commentCleanupService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(commentCleanupService, "taskExecutor", (TaskExecutor) Runnable::run);
+        ReflectionTestUtils.setField(commentCleanupService, "batchSize", 500);
+        ReflectionTestUtils.setField(commentCleanupService, "sweepChunkSize", 2);
+        ReflectionTestUtils.setField(commentCleanupService, "sweepLockLease", 60000L);
+    }
+
+    @Test
+    void testDeleteForContentRunsOnExecutor() {
+        when(commentService.deleteByContent("VIDEO", 7L, 500)).thenReturn(4L);
+
+        commentCleanupService.deleteForContent(TitleSearchIndex.ContentType.VIDEO, 7L);
+
+        verify(commentService).deleteByContent("VIDEO", 7L, 500);
+        assertEquals(4, meterRegistry.counter("cms.comments.cleanup.deleted", "source", "cascade").count());
+    }
+
+    @Test
+    void testDeleteForContentLeavesRejectedWorkForSweep() {
+        ReflectionTestUtils.setField(commentCleanupService, "taskExecutor", (TaskExecutor) task -> {
+            throw new TaskRejectedException("Executor is full");
+        });
+
+        commentCleanupService.deleteForContent(TitleSearchIndex.ContentType.VIDEO, 7L);
+
+        verifyNoInteractions(commentService);
+        assertEquals(1, meterRegistry.counter("cms.comments.cleanup.rejected", "source", "cascade").count());
+    }
+
+    @Test
+    void testSweepOrphansDeletesCommentsOfMissingContentInChunks() {
+        when(scheduledJobLock.tryAcquire("comment-orphan-sweep", Duration.ofMillis(60000))).thenReturn(true);
+        when(commentRepository.findContentIdsAfter("ARTICLE", Long.MIN_VALUE, 2)).thenReturn(List.of(1L, 2L));
+        when(commentRepository.findContentIdsAfter("ARTICLE", 2L, 2)).thenReturn(List.of(3L));
+        when(commentRepository.findContentIdsAfter("VIDEO", Long.MIN_VALUE, 2)).thenReturn(List.of());
+        when(commentRepository.findContentIdsAfter("PODCAST", Long.MIN_VALUE, 2)).thenReturn(List.of());
+        when(articleRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+        when(articleRepository.findExistingIds(List.of(3L))).thenReturn(List.of());
+
+        int swept = commentCleanupService.sweepOrphans();
+
+        assertEquals(2, swept);
+        verify(commentService).deleteByContent("ARTICLE", 2L, 500);
+        verify(commentService).deleteByContent("ARTICLE", 3L, 500);
+        verify(commentService, never()).deleteByContent("ARTICLE", 1L, 500);
+        verifyNoInteractions(videoRepository, podcastRepository);
+    }
+
+    @Test
+    void testSweepOrphansSkipsWhileAnotherNodeHoldsTheLease() {
+        when(scheduledJobLock.tryAcquire(eq("comment-orphan-sweep"), any(Duration.class))).thenReturn(false);
+
+        assertEquals(0, commentCleanupService.sweepOrphans());
+        verifyNoInteractions(commentRepository, commentService);
+    }
+}
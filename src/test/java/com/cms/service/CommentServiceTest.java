@@ -1,20 +1,29 @@
 package com.cms.service;
 
+import com.cms.config.CacheConfig;
 import com.cms.dto.CommentDto;
+import com.cms.dto.CursorPageDto;
+import com.cms.exception.BadRequestException;
 import com.cms.exception.ResourceNotFoundException;
 import com.cms.model.document.Comment;
 import com.cms.repository.CommentRepository;
+import com.cms.repository.projection.ReplyCount;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -26,6 +35,18 @@ class CommentServiceTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Mock
+    private CommentCounterService commentCounterService;
+
+    @Mock
+    private CommentStreamBroadcaster commentStreamBroadcaster;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -56,7 +77,25 @@ class CommentServiceTest {
         assertNotNull(response);
         assertEquals("comment-id", response.getId());
         assertEquals("Test comment", response.getText());
-        verify(commentRepository, times(1)).save(any(Comment.class));
+        InOrder inOrder = inOrder(commentRepository, cacheInvalidationBus);
+        inOrder.verify(commentRepository, times(1)).save(any(Comment.class));
+        inOrder.verify(cacheInvalidationBus).publish(CacheConfig.COMMENTS, "ARTICLE:1");
+        verify(commentCounterService).increment("ARTICLE", 1L, 1);
+        verify(commentStreamBroadcaster).publish("ARTICLE", 1L, CommentStreamBroadcaster.CREATED, response);
+    }
+
+    @Test
+    void testCreateNormalizesContentType() {
+        CommentDto.CommentRequestDto requestDto = new CommentDto.CommentRequestDto();
+        requestDto.setContentId(1L);
+        requestDto.setContentType(" article ");
+        requestDto.setText("New comment");
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        commentService.create(requestDto, "testuser");
+
+        verify(commentRepository).save(argThat(comment -> "ARTICLE".equals(comment.getContentType())));
+        verify(cacheInvalidationBus).publish(CacheConfig.COMMENTS, "ARTICLE:1");
     }
 
     @Test
@@ -66,6 +105,8 @@ class CommentServiceTest {
         parentComment.setContentId(1L);
         parentComment.setContentType("ARTICLE");
         parentComment.setText("Parent comment");
+        parentComment.setRootId("parent-id");
+        parentComment.setPath("parent-id");
 
         CommentDto.CommentRequestDto requestDto = new CommentDto.CommentRequestDto();
         requestDto.setContentId(1L);
@@ -74,13 +115,35 @@ class CommentServiceTest {
         requestDto.setParentCommentId("parent-id");
 
         when(commentRepository.findById("parent-id")).thenReturn(Optional.of(parentComment));
-        when(commentRepository.save(any(Comment.class))).thenReturn(parentComment);
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         CommentDto.CommentResponseDto response = commentService.create(requestDto, "testuser");
 
-        assertNotNull(response);
+        assertEquals("parent-id", response.getParentId());
         verify(commentRepository, times(1)).findById("parent-id");
-        verify(commentRepository, times(1)).save(any(Comment.class));
+        verify(commentRepository, times(1)).save(argThat(reply ->
+                "parent-id".equals(reply.getRootId())
+                        && reply.getPath().equals("parent-id/" + reply.getId())));
+    }
+
+    @Test
+    void testCreateReplyRejectsParentOnOtherContent() {
+        Comment parentComment = new Comment();
+        parentComment.setId("parent-id");
+        parentComment.setContentId(2L);
+        parentComment.setContentType("ARTICLE");
+
+        CommentDto.CommentRequestDto requestDto = new CommentDto.CommentRequestDto();
+        requestDto.setContentId(1L);
+        requestDto.setContentType("ARTICLE");
+        requestDto.setText("Reply comment");
+        requestDto.setParentCommentId("parent-id");
+
+        when(commentRepository.findById("parent-id")).thenReturn(Optional.of(parentComment));
+
+        assertThrows(BadRequestException.class, () -> commentService.create(requestDto, "testuser"));
+        verify(commentRepository, never()).save(any(Comment.class));
+        verifyNoInteractions(cacheInvalidationBus);
     }
 
     @Test
@@ -110,12 +173,61 @@ class CommentServiceTest {
         comment2.setText("Comment 2");
 
         List<Comment> comments = Arrays.asList(testComment, comment2);
-        when(commentRepository.findByContentIdAndContentType(1L, "ARTICLE")).thenReturn(comments);
+        when(commentRepository.findTopLevelFirstPage(eq("ARTICLE"), eq(1L), any(Pageable.class))).thenReturn(comments);
+        when(commentRepository.countReplies("ARTICLE", 1L, List.of("comment-id", "comment-2")))
+                .thenReturn(List.of(new ReplyCount("comment-id", 4)));
 
-        List<CommentDto.CommentResponseDto> response = commentService.getByContent(1L, "ARTICLE");
+        CursorPageDto<CommentDto.CommentResponseDto> response = commentService.getPage(1L, "ARTICLE", null, null);
 
-        assertNotNull(response);
-        assertEquals(2, response.size());
+        assertEquals(2, response.getItems().size());
+        assertEquals(4L, response.getItems().get(0).getReplyCount());
+        assertEquals(0L, response.getItems().get(1).getReplyCount());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void testGetRepliesContinuesFromCursor() {
+        Comment reply1 = threadComment(new ObjectId().toHexString(), "comment-id", "comment-id/r1");
+        Comment reply2 = threadComment(new ObjectId().toHexString(), "comment-id", "comment-id/r2");
+        Comment reply3 = threadComment(new ObjectId().toHexString(), "comment-id", "comment-id/r3");
+        when(commentRepository.findById("comment-id")).thenReturn(Optional.of(testComment));
+        when(commentRepository.findRepliesFirstPage(eq("ARTICLE"), eq(1L), eq("comment-id"), any(Pageable.class)))
+                .thenReturn(List.of(reply1, reply2, reply3));
+
+        CursorPageDto<CommentDto.CommentResponseDto> firstPage = commentService.getReplies("comment-id", null, 2);
+
+        assertEquals(2, firstPage.getItems().size());
+        assertNotNull(firstPage.getNextCursor());
+
+        when(commentRepository.findRepliesPageAfter(eq("ARTICLE"), eq(1L), eq("comment-id"),
+                eq(reply2.getCreatedAt()), eq(new ObjectId(reply2.getId())), any(Pageable.class)))
+                .thenReturn(List.of(reply3));
+
+        CursorPageDto<CommentDto.CommentResponseDto> secondPage =
+                commentService.getReplies("comment-id", firstPage.getNextCursor(), 2);
+
+        assertEquals(List.of(reply3.getId()), secondPage.getItems().stream()
+                .map(CommentDto.CommentResponseDto::getId)
+                .collect(Collectors.toList()));
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void testGetCommentByIdNestsReplies() {
+        Comment root = threadComment("a", null, "a");
+        Comment reply = threadComment("b", "a", "a/b");
+        Comment nested = threadComment("c", "b", "a/b/c");
+        Comment secondReply = threadComment("d", "a", "a/d");
+        when(commentRepository.findById("a")).thenReturn(Optional.of(root));
+        when(commentRepository.findThread("ARTICLE", 1L, "^a")).thenReturn(List.of(root, reply, nested, secondReply));
+
+        CommentDto.CommentResponseDto response = commentService.getById("a");
+
+        assertEquals("a", response.getId());
+        assertEquals(2, response.getReplies().size());
+        assertEquals("b", response.getReplies().get(0).getId());
+        assertEquals("c", response.getReplies().get(0).getReplies().get(0).getId());
+        assertNull(response.getReplies().get(1).getReplies());
     }
 
     @Test
@@ -144,20 +256,64 @@ class CommentServiceTest {
 
     @Test
     void testDeleteComment() {
-        when(commentRepository.existsById("comment-id")).thenReturn(true);
+        when(commentRepository.findById("comment-id")).thenReturn(Optional.of(testComment));
         doNothing().when(commentRepository).deleteById("comment-id");
 
         commentService.delete("comment-id");
 
         verify(commentRepository, times(1)).deleteById("comment-id");
+        verify(commentCounterService).increment("ARTICLE", 1L, -1);
+    }
+
+    @Test
+    void testDeleteCommentRemovesReplies() {
+        testComment.setPath("comment-id");
+        when(commentRepository.findById("comment-id")).thenReturn(Optional.of(testComment));
+        when(commentRepository.deleteThread("ARTICLE", 1L, "^comment-id")).thenReturn(3L);
+
+        commentService.delete("comment-id");
+
+        verify(commentRepository).deleteThread("ARTICLE", 1L, "^comment-id");
+        verify(commentRepository, never()).deleteById(any());
+        verify(commentCounterService).increment("ARTICLE", 1L, -3);
+        verify(commentStreamBroadcaster).publish(eq("ARTICLE"), eq(1L), eq(CommentStreamBroadcaster.DELETED),
+                any(CommentDto.CommentResponseDto.class));
     }
 
     @Test
     void testDeleteCommentNotFound() {
-        when(commentRepository.existsById("comment-id")).thenReturn(false);
+        when(commentRepository.findById("comment-id")).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> commentService.delete("comment-id"));
         verify(commentRepository, never()).deleteById(any());
+        verifyNoInteractions(commentCounterService);
     }
-}
 
+    @Test
+    void testDeleteByContentDeletesInBatches() {
+        Comment first = threadComment("c1", null, "c1");
+        Comment second = threadComment("c2", null, "c2");
+        Comment third = threadComment("c3", null, "c3");
+        when(commentRepository.findIdsByContent(eq("ARTICLE"), eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(first, second), List.of(third));
+
+        long deleted = commentService.deleteByContent("ARTICLE", 1L, 2);
+
+        assertEquals(3, deleted);
+        verify(commentRepository).deleteAllById(List.of("c1", "c2"));
+        verify(commentRepository).deleteAllById(List.of("c3"));
+        verify(commentCounterService).remove("ARTICLE", 1L);
+        verify(cacheInvalidationBus).publish(CacheConfig.COMMENTS, "ARTICLE:1");
+    }
+
+    private Comment threadComment(String id, String parentId, String path) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setContentId(1L);
+        comment.setContentType("ARTICLE");
+        comment.setParentId(parentId);
+        comment.setRootId(path.substring(0, 1));
+        comment.setPath(path);
+        return comment;
+    }
+}
@@ -0,0 +1,77 @@
+package com.cms.service;
+
+import com.cms.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommentStreamBroadcasterTest {
+    private CommentStreamBroadcaster broadcaster;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    // Collects drain tasks without running them, so subscribers never catch up.
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new CommentStreamBroadcaster();
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(broadcaster, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(broadcaster, "bufferSize", 2);
+        ReflectionTestUtils.setField(broadcaster, "timeout", 60000L);
+        ReflectionTestUtils.setField(broadcaster, "maxSubscribers", 2);
+        ReflectionTestUtils.setField(broadcaster, "poolSize", 1);
+        ReflectionTestUtils.setField(broadcaster, "queueCapacity", 1);
+        ReflectionTestUtils.setField(broadcaster, "heartbeatInterval", 60000L);
+        broadcaster.init();
+        broadcaster.stop();
+        ReflectionTestUtils.setField(broadcaster, "taskExecutor", (TaskExecutor) pendingDrains::add);
+    }
+
+    @Test
+    void testSlowSubscriberIsDroppedWithoutAffectingOthers() {
+        broadcaster.subscribe("ARTICLE", 1L);
+        broadcaster.subscribe("ARTICLE", 2L);
+        assertEquals(2, broadcaster.subscriberCount());
+        assertEquals(2, pendingDrains.size());
+
+        broadcaster.publish("ARTICLE", 1L, CommentStreamBroadcaster.CREATED, "first");
+        assertEquals(2, broadcaster.subscriberCount());
+
+        broadcaster.publish("ARTICLE", 1L, CommentStreamBroadcaster.CREATED, "second");
+
+        assertEquals(1, broadcaster.subscriberCount());
+        assertEquals(1, meterRegistry.counter("cms.comments.stream.dropped").count());
+        assertEquals(2, pendingDrains.size());
+    }
+
+    @Test
+    void testRejectedDrainDisconnectsSubscriber() {
+        ReflectionTestUtils.setField(broadcaster, "taskExecutor", (TaskExecutor) task -> {
+            throw new TaskRejectedException("Stream pool is full");
+        });
+
+        broadcaster.subscribe("ARTICLE", 1L);
+
+        assertEquals(0, broadcaster.subscriberCount());
+        assertEquals(1, meterRegistry.counter("cms.comments.stream.rejected").count());
+    }
+
+    @Test
+    void testSubscribersAreLimited() {
+        broadcaster.subscribe("ARTICLE", 1L);
+        broadcaster.subscribe("ARTICLE", 1L);
+
+        assertThrows(ServiceUnavailableException.class, () -> broadcaster.subscribe("ARTICLE", 1L));
+        assertEquals(2, broadcaster.subscriberCount());
+    }
+}
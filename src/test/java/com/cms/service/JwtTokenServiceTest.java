@@ -0,0 +1,249 @@
+package com.cms.service;
+
+import com.cms.model.document.JwtToken;
+import com.cms.model.document.TokenType;
+import com.cms.repository.JwtTokenRepository;
+import com.cms.security.JwtTokenProvider;
+import com.cms.util.TokenHashUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtTokenServiceTest {
+    @Mock
+    private JwtTokenRepository jwtTokenRepository;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @InjectMocks
+    private JwtTokenService jwtTokenService;
+
+    private JwtToken storedToken;
+
+    private final String tokenHash = TokenHashUtil.sha256("test-token");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtTokenService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtTokenService, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(jwtTokenService, "cacheMaximumSize", 1000L);
+        ReflectionTestUtils.setField(jwtTokenService, "cacheTtl", 300000L);
+        ReflectionTestUtils.setField(jwtTokenService, "denylistMaximumSize", 1000L);
+        jwtTokenService.init();
+
+        storedToken = new JwtToken();
+        storedToken.setTokenHash(tokenHash);
+        storedToken.setUserId(1L);
+        storedToken.setExpiresAt(LocalDateTime.now().plusHours(1));
+    }
+
+    @Test
+    void testIsTokenValidCachesKnownToken() {
+        when(jwtTokenProvider.validateToken("test-token")).thenReturn(true);
+        when(jwtTokenRepository.findByTokenHash(tokenHash)).thenReturn(Optional.of(storedToken));
+
+        assertTrue(jwtTokenService.isTokenValid("test-token"));
+        assertTrue(jwtTokenService.isTokenValid("test-token"));
+        assertTrue(jwtTokenService.isTokenValid("test-token"));
+
+        verify(jwtTokenRepository, times(1)).findByTokenHash(tokenHash);
+    }
+
+    @Test
+    void testIsTokenValidDoesNotCacheUnknownToken() {
+        when(jwtTokenProvider.validateToken("test-token")).thenReturn(true);
+        when(jwtTokenRepository.findByTokenHash(tokenHash)).thenReturn(Optional.empty());
+
+        assertFalse(jwtTokenService.isTokenValid("test-token"));
+        assertFalse(jwtTokenService.isTokenValid("test-token"));
+
+        verify(jwtTokenRepository, times(2)).findByTokenHash(tokenHash);
+    }
+
+    @Test
+    void testRevokeTokenDeniesCachedToken() {
+        when(jwtTokenProvider.validateToken("test-token")).thenReturn(true);
+        when(jwtTokenRepository.findByTokenHash(tokenHash)).thenReturn(Optional.of(storedToken));
+
+        assertTrue(jwtTokenService.isTokenValid("test-token"));
+
+        jwtTokenService.revokeToken("test-token");
+
+        assertFalse(jwtTokenService.isTokenValid("test-token"));
+        verify(jwtTokenRepository, times(1)).deleteByTokenHash(tokenHash);
+        verify(jwtTokenRepository, times(1)).findByTokenHash(tokenHash);
+    }
+
+    @Test
+    void testRevokeUncachedTokenUsesTokenExpiration() {
+        when(jwtTokenProvider.validateToken("test-token")).thenReturn(true);
+        when(jwtTokenProvider.getExpirationDateFromToken("test-token"))
+                .thenReturn(new Date(System.currentTimeMillis() + 3600000));
+
+        jwtTokenService.revokeToken("test-token");
+
+        assertFalse(jwtTokenService.isTokenValid("test-token"));
+        verify(jwtTokenRepository, never()).findByTokenHash(tokenHash);
+    }
+
+    @Test
+    void testRevokeAllUserTokensInvalidatesCache() {
+        when(jwtTokenProvider.validateToken("test-token")).thenReturn(true);
+        when(jwtTokenRepository.findByTokenHash(tokenHash))
+                .thenReturn(Optional.of(storedToken))
+                .thenReturn(Optional.empty());
+
+        assertTrue(jwtTokenService.isTokenValid("test-token"));
+
+        jwtTokenService.revokeAllUserTokens(1L);
+
+        assertFalse(jwtTokenService.isTokenValid("test-token"));
+        verify(jwtTokenRepository, times(1)).deleteByUserId(1L);
+        verify(jwtTokenRepository, times(2)).findByTokenHash(tokenHash);
+    }
+
+    @Test
+    void testAsyncWriteServesTokenFromCache() {
+        ReflectionTestUtils.setField(jwtTokenService, "asyncWrite", true);
+        ReflectionTestUtils.setField(jwtTokenService, "taskExecutor", new SyncTaskExecutor());
+        when(jwtTokenProvider.getExpirationDateFromToken("test-token"))
+                .thenReturn(new Date(System.currentTimeMillis() + 3600000));
+        when(jwtTokenProvider.validateToken("test-token")).thenReturn(true);
+
+        jwtTokenService.saveToken("test-token", 1L);
+
+        assertTrue(jwtTokenService.isTokenValid("test-token"));
+        verify(jwtTokenRepository).save(argThat(token -> token.getTokenHash().equals(tokenHash)));
+        verify(jwtTokenRepository, never()).findByTokenHash(tokenHash);
+    }
+
+    @Test
+    void testAccessTokenCheckIsStatelessWhenRefreshTokensEnabled() {
+        ReflectionTestUtils.setField(jwtTokenService, "refreshTokensEnabled", true);
+        Claims claims = accessTokenClaims("jti-1");
+        when(jwtTokenProvider.getUserId(claims)).thenReturn(1L);
+
+        assertTrue(jwtTokenService.isTokenActive("access-token", claims));
+
+        verifyNoInteractions(jwtTokenRepository);
+    }
+
+    @Test
+    void testRevokedJtiIsDeniedWhenRefreshTokensEnabled() {
+        ReflectionTestUtils.setField(jwtTokenService, "refreshTokensEnabled", true);
+        Claims claims = accessTokenClaims("jti-1");
+        when(jwtTokenProvider.parseClaims("access-token")).thenReturn(claims);
+
+        jwtTokenService.revokeToken("access-token");
+
+        assertFalse(jwtTokenService.isTokenActive("access-token", claims));
+        verifyNoInteractions(jwtTokenRepository);
+        verify(cacheInvalidationBus).publish(eq(JwtTokenService.REVOKED_TOKENS),
+                argThat(key -> key.toString().startsWith("jti-1:")));
+    }
+
+    @Test
+    void testRevokeAllUserTokensDeniesEarlierAccessTokens() {
+        ReflectionTestUtils.setField(jwtTokenService, "refreshTokensEnabled", true);
+        Claims claims = accessTokenClaims("jti-1");
+        when(jwtTokenProvider.getUserId(claims)).thenReturn(1L);
+
+        jwtTokenService.revokeAllUserTokens(1L);
+
+        assertFalse(jwtTokenService.isTokenActive("access-token", claims));
+        verify(cacheInvalidationBus).publish(eq(JwtTokenService.REVOKED_USERS),
+                argThat(key -> key.toString().startsWith("1:")));
+    }
+
+    @Test
+    void testAccessTokenIssuedInTheSecondOfRevocationStaysValid() {
+        ReflectionTestUtils.setField(jwtTokenService, "refreshTokensEnabled", true);
+        jwtTokenService.revokeAllUserTokens(1L);
+        // Issued after the revocation; iat loses the milliseconds.
+        Claims claims = Jwts.claims()
+                .id("jti-2")
+                .subject("testuser")
+                .issuedAt(new Date(System.currentTimeMillis() / 1000 * 1000))
+                .expiration(new Date(System.currentTimeMillis() + 900000))
+                .build();
+        when(jwtTokenProvider.getUserId(claims)).thenReturn(1L);
+
+        assertTrue(jwtTokenService.isTokenActive("access-token", claims));
+    }
+
+    @Test
+    void testRevocationsFromOtherNodesAreApplied() {
+        ReflectionTestUtils.setField(jwtTokenService, "refreshTokensEnabled", true);
+        Claims claims = accessTokenClaims("jti-1");
+        Claims otherUserClaims = accessTokenClaims("jti-3");
+        when(jwtTokenProvider.getUserId(claims)).thenReturn(1L);
+
+        jwtTokenService.onInvalidate(JwtTokenService.REVOKED_USERS, "1:" + System.currentTimeMillis());
+        jwtTokenService.onInvalidate(JwtTokenService.REVOKED_TOKENS, "jti-3:" + (System.currentTimeMillis() + 900000));
+
+        assertFalse(jwtTokenService.isTokenActive("access-token", claims));
+        assertFalse(jwtTokenService.isTokenActive("other-token", otherUserClaims));
+    }
+
+    @Test
+    void testCreateRefreshTokenStoresOnlyDigest() {
+        String refreshToken = jwtTokenService.createRefreshToken(1L);
+
+        verify(jwtTokenRepository).save(argThat(token ->
+                token.getType() == TokenType.REFRESH
+                        && token.getTokenHash().equals(TokenHashUtil.sha256(refreshToken))
+                        && token.getUserId().equals(1L)));
+    }
+
+    @Test
+    void testConsumeRefreshTokenRotates() {
+        JwtToken refreshToken = new JwtToken();
+        refreshToken.setUserId(1L);
+        refreshToken.setType(TokenType.REFRESH);
+        refreshToken.setExpiresAt(LocalDateTime.now().plusDays(1));
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(JwtToken.class)))
+                .thenReturn(refreshToken)
+                .thenReturn(null);
+
+        assertEquals(1L, jwtTokenService.consumeRefreshToken("refresh-token"));
+        assertThrows(CredentialsExpiredException.class, () -> jwtTokenService.consumeRefreshToken("refresh-token"));
+    }
+
+    private Claims accessTokenClaims(String jti) {
+        long now = System.currentTimeMillis();
+        return Jwts.claims()
+                .id(jti)
+                .subject("testuser")
+                .issuedAt(new Date(now - 1000))
+                .expiration(new Date(now + 900000))
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.cms.service;
+
+import com.cms.service.TitleSearchIndex.ContentType;
+import com.cms.service.TitleSearchIndex.Hit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleSearchIndexTest {
+    private TitleSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TitleSearchIndex();
+        index.put(ContentType.ARTICLE, 1L, "Getting started with Spring Boot");
+        index.put(ContentType.VIDEO, 1L, "Spring Security deep dive");
+        index.put(ContentType.PODCAST, 7L, "Springfield stories");
+    }
+
+    @Test
+    void testPrefixMatchesAcrossContentTypes() {
+        List<Hit> hits = index.search("spr", 10);
+
+        assertEquals(3, hits.size());
+        assertTrue(hits.contains(new Hit(ContentType.VIDEO, 1L, "Spring Security deep dive")));
+        assertTrue(hits.contains(new Hit(ContentType.PODCAST, 7L, "Springfield stories")));
+    }
+
+    @Test
+    void testWholeWordMatchesRankFirst() {
+        List<Hit> hits = index.search("spring", 10);
+
+        assertEquals(3, hits.size());
+        assertEquals(ContentType.PODCAST, hits.get(2).type());
+    }
+
+    @Test
+    void testEarlierTokensMustMatchExactly() {
+        List<Hit> hits = index.search("spring bo", 10);
+
+        assertEquals(List.of(new Hit(ContentType.ARTICLE, 1L, "Getting started with Spring Boot")), hits);
+        assertTrue(index.search("sprin boot", 10).isEmpty());
+    }
+
+    @Test
+    void testTokenizationIgnoresCaseAndDiacritics() {
+        index.put(ContentType.ARTICLE, 2L, "Café Crème — Ёлка");
+
+        assertEquals(1, index.search("CAFE cre", 10).size());
+        assertEquals(1, index.search("елк", 10).size());
+    }
+
+    @Test
+    void testUpdateReplacesTitle() {
+        index.put(ContentType.ARTICLE, 1L, "Kotlin coroutines");
+
+        assertTrue(index.search("boot", 10).isEmpty());
+        assertEquals(List.of(new Hit(ContentType.ARTICLE, 1L, "Kotlin coroutines")), index.search("kot", 10));
+        assertEquals(3, index.size());
+        assertEquals(1, index.tombstoneCount());
+    }
+
+    @Test
+    void testRemoveHidesDocument() {
+        index.remove(ContentType.VIDEO, 1L);
+        index.remove(ContentType.VIDEO, 99L);
+
+        assertTrue(index.search("security", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testLimitKeepsNewestAmongEqualMatches() {
+        for (long id = 10; id < 20; id++) {
+            index.put(ContentType.ARTICLE, id, "Weekly digest");
+        }
+
+        List<Hit> hits = index.search("digest", 3);
+
+        assertEquals(List.of(19L, 18L, 17L), hits.stream().map(Hit::id).toList());
+    }
+
+    @Test
+    void testCompactionDropsTombstones() {
+        for (int round = 0; round < 3; round++) {
+            for (long id = 100; id < 1100; id++) {
+                index.put(ContentType.ARTICLE, id, "Release notes " + round);
+            }
+        }
+
+        assertEquals(1003, index.size());
+        assertTrue(index.tombstoneCount() < 1000);
+        assertEquals(5, index.search("release notes 2", 5).size());
+        assertTrue(index.search("release notes 0", 5).isEmpty());
+    }
+
+    @Test
+    void testMemoryEstimateTracksContent() {
+        long before = index.estimatedMemoryBytes();
+
+        for (long id = 100; id < 200; id++) {
+            index.put(ContentType.VIDEO, id, "Conference talk number " + id);
+        }
+
+        assertTrue(index.estimatedMemoryBytes() > before);
+        assertTrue(index.termCount() > 100);
+    }
+
+    @Test
+    void testBlankQueryReturnsNothing() {
+        assertTrue(index.search("  -- ", 10).isEmpty());
+        assertTrue(index.search(null, 10).isEmpty());
+    }
+}
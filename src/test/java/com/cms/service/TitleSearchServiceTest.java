@@ -0,0 +1,87 @@
+package com.cms.service;
+
+import com.cms.config.CacheConfig;
+import com.cms.dto.SearchDto;
+import com.cms.repository.ArticleRepository;
+import com.cms.repository.PodcastRepository;
+import com.cms.repository.VideoRepository;
+import com.cms.repository.projection.ContentTitle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TitleSearchServiceTest {
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private PodcastRepository podcastRepository;
+
+    @InjectMocks
+    private TitleSearchService titleSearchService;
+
+    private final List<Runnable> queued = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(titleSearchService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(titleSearchService, "taskExecutor", (TaskExecutor) queued::add);
+        ReflectionTestUtils.setField(titleSearchService, "batchSize", 100);
+        ReflectionTestUtils.setField(titleSearchService, "reloadRebuildThreshold", 2);
+    }
+
+    @Test
+    void testRemoteInvalidationsAreReloadedInOneBatch() {
+        when(articleRepository.findTitlesByIdIn(argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 2L)))))
+                .thenReturn(List.of(new ContentTitle(1L, "Hello world")));
+
+        titleSearchService.onInvalidate(CacheConfig.ARTICLES, 1L);
+        titleSearchService.onInvalidate(CacheConfig.ARTICLES, 2L);
+        titleSearchService.onInvalidate(CacheConfig.COMMENTS, "ARTICLE:1");
+
+        assertEquals(1, queued.size());
+        queued.get(0).run();
+
+        verify(articleRepository, times(1)).findTitlesByIdIn(any());
+        List<SearchDto.SuggestionDto> hits = titleSearchService.suggest("hel", null);
+        assertEquals(1, hits.size());
+        assertEquals(1L, hits.get(0).getId());
+        verifyNoInteractions(videoRepository, podcastRepository);
+    }
+
+    @Test
+    void testLargeBacklogRebuildsInsteadOfReloading() {
+        when(articleRepository.findTitlesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(new ContentTitle(1L, "Hello world")));
+
+        titleSearchService.onInvalidate(CacheConfig.ARTICLES, 1L);
+        titleSearchService.onInvalidate(CacheConfig.ARTICLES, 2L);
+        titleSearchService.onInvalidate(CacheConfig.VIDEOS, 3L);
+        queued.get(0).run();
+
+        verify(articleRepository, never()).findTitlesByIdIn(any());
+        verify(videoRepository, never()).findTitlesByIdIn(any());
+        assertEquals(1, titleSearchService.suggest("hel", null).size());
+    }
+}
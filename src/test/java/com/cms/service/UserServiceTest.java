@@ -6,18 +6,23 @@ import com.cms.exception.BadRequestException;
 import com.cms.model.entity.Role;
 import com.cms.model.entity.User;
 import com.cms.repository.UserRepository;
+import com.cms.security.CmsUserDetails;
 import com.cms.security.JwtTokenProvider;
+import com.cms.security.UserDetailsServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,6 +47,9 @@ class UserServiceTest {
     @Mock
     private JwtTokenService jwtTokenService;
 
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
     @InjectMocks
     private UserService userService;
 
@@ -64,10 +72,8 @@ class UserServiceTest {
         registrationDto.setEmail("new@example.com");
         registrationDto.setPassword("password123");
 
-        when(userRepository.existsByUsername("newuser")).thenReturn(false);
-        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
         when(jwtTokenProvider.generateToken(anyString(), any())).thenReturn("test-token");
 
         AuthResponseDto response = userService.register(registrationDto);
@@ -75,7 +81,26 @@ class UserServiceTest {
         assertNotNull(response);
         assertEquals("test-token", response.getToken());
         assertNotNull(response.getUser());
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(jwtTokenService, times(1)).saveToken(anyString(), any());
+        verify(cacheInvalidationBus).publish(UserDetailsServiceImpl.CACHE_NAME, "testuser");
+    }
+
+    @Test
+    void testRegisterRoundTrips() {
+        UserDto.UserRegistrationDto registrationDto = new UserDto.UserRegistrationDto();
+        registrationDto.setUsername("newuser");
+        registrationDto.setEmail("new@example.com");
+        registrationDto.setPassword("password123");
+
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+        when(jwtTokenProvider.generateToken(anyString(), any())).thenReturn("test-token");
+
+        userService.register(registrationDto);
+
+        // Previously existsByUsername, existsByEmail, save and the token write: 4 round trips.
+        assertEquals(1, mockingDetails(userRepository).getInvocations().size());
         verify(jwtTokenService, times(1)).saveToken(anyString(), any());
     }
 
@@ -86,10 +111,13 @@ class UserServiceTest {
         registrationDto.setEmail("new@example.com");
         registrationDto.setPassword("password123");
 
-        when(userRepository.existsByUsername("existinguser")).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(duplicateKey("users_username_key", "username", "existinguser"));
 
-        assertThrows(BadRequestException.class, () -> userService.register(registrationDto));
-        verify(userRepository, never()).save(any(User.class));
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> userService.register(registrationDto));
+        assertEquals("Username already exists", exception.getMessage());
+        verify(jwtTokenService, never()).saveToken(anyString(), any());
     }
 
     @Test
@@ -99,11 +127,28 @@ class UserServiceTest {
         registrationDto.setEmail("existing@example.com");
         registrationDto.setPassword("password123");
 
-        when(userRepository.existsByUsername("newuser")).thenReturn(false);
-        when(userRepository.existsByEmail("existing@example.com")).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(duplicateKey("users_email_key", "email", registrationDto.getEmail()));
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> userService.register(registrationDto));
+        assertEquals("Email already exists", exception.getMessage());
+        verify(jwtTokenService, never()).saveToken(anyString(), any());
+    }
+
+    @Test
+    void testRegisterEmailContainingUsernameExists() {
+        UserDto.UserRegistrationDto registrationDto = new UserDto.UserRegistrationDto();
+        registrationDto.setUsername("newuser");
+        registrationDto.setEmail("username@example.com");
+        registrationDto.setPassword("password123");
+
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(duplicateKey("users_email_key", "email", registrationDto.getEmail()));
 
-        assertThrows(BadRequestException.class, () -> userService.register(registrationDto));
-        verify(userRepository, never()).save(any(User.class));
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> userService.register(registrationDto));
+        assertEquals("Email already exists", exception.getMessage());
     }
 
     @Test
@@ -125,5 +170,81 @@ class UserServiceTest {
         assertNotNull(response.getUser());
         verify(jwtTokenService, times(1)).saveToken(anyString(), any());
     }
-}
 
+    @Test
+    void testLoginReusesAuthenticatedPrincipal() {
+        UserDto.UserLoginDto loginDto = new UserDto.UserLoginDto();
+        loginDto.setUsername("testuser");
+        loginDto.setPassword("password123");
+
+        CmsUserDetails principal = new CmsUserDetails(1L, "testuser", "test@example.com",
+                "encodedPassword", Role.USER);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                principal, null, principal.getAuthorities());
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(authentication);
+        when(jwtTokenProvider.generateToken("testuser", 1L)).thenReturn("test-token");
+
+        AuthResponseDto response = userService.login(loginDto);
+
+        assertEquals("test-token", response.getToken());
+        assertEquals(1L, response.getUser().getId());
+        assertEquals("test@example.com", response.getUser().getEmail());
+        // Previously the user was loaded again with findByUsername after authentication.
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testLoginIssuesRefreshTokenWhenEnabled() {
+        UserDto.UserLoginDto loginDto = new UserDto.UserLoginDto();
+        loginDto.setUsername("testuser");
+        loginDto.setPassword("password123");
+
+        Authentication authentication = mock(Authentication.class);
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(authentication);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(jwtTokenService.isRefreshTokensEnabled()).thenReturn(true);
+        when(jwtTokenProvider.generateAccessToken("testuser", 1L)).thenReturn("access-token");
+        when(jwtTokenService.createRefreshToken(1L)).thenReturn("refresh-token");
+
+        AuthResponseDto response = userService.login(loginDto);
+
+        assertEquals("access-token", response.getToken());
+        assertEquals("refresh-token", response.getRefreshToken());
+        verify(jwtTokenService, never()).saveToken(anyString(), any());
+    }
+
+    @Test
+    void testRefreshRotatesTokens() {
+        UserDto.RefreshTokenRequestDto refreshDto = new UserDto.RefreshTokenRequestDto();
+        refreshDto.setRefreshToken("old-refresh-token");
+
+        when(jwtTokenService.isRefreshTokensEnabled()).thenReturn(true);
+        when(jwtTokenService.consumeRefreshToken("old-refresh-token")).thenReturn(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(jwtTokenProvider.generateAccessToken("testuser", 1L)).thenReturn("access-token");
+        when(jwtTokenService.createRefreshToken(1L)).thenReturn("new-refresh-token");
+
+        AuthResponseDto response = userService.refresh(refreshDto);
+
+        assertEquals("access-token", response.getToken());
+        assertEquals("new-refresh-token", response.getRefreshToken());
+    }
+
+    @Test
+    void testRefreshRejectedWhenDisabled() {
+        UserDto.RefreshTokenRequestDto refreshDto = new UserDto.RefreshTokenRequestDto();
+        refreshDto.setRefreshToken("refresh-token");
+
+        assertThrows(BadRequestException.class, () -> userService.refresh(refreshDto));
+        verify(jwtTokenService, never()).consumeRefreshToken(anyString());
+    }
+
+    private DataIntegrityViolationException duplicateKey(String constraint, String column, String value) {
+        String message = "duplicate key value violates unique constraint \"" + constraint + "\"\n"
+                + "  Detail: Key (" + column + ")=(" + value + ") already exists.";
+        return new DataIntegrityViolationException(message,
+                new ConstraintViolationException(message, new SQLException(message, "23505"), constraint));
+    }
+}
@@ -0,0 +1,90 @@
+-- Full-text search benchmark over a generated corpus of 1,000,000 articles.
+--
+-- Run against a scratch database migrated to V009 or later:
+--   psql -d cms_bench -f src/test/resources/benchmark/article_search_benchmark.sql
+--
+-- Article text comes from a fixed 200-word vocabulary, with Zipf-like skew
+-- (power 3), so some terms are common and the rest are rare. The script
+-- compares the search endpoint's query with the ILIKE scan it replaces.
+-- It also compares a rare term with a common one, because ranking cost
+-- grows with the number of matches.
+
+\timing on
+
+BEGIN;
+
+INSERT INTO users (username, email, password, role, created_at)
+VALUES ('bench_author', 'bench_author@example.com', 'x', 'ADMIN', now())
+ON CONFLICT (username) DO NOTHING;
+
+CREATE TEMP TABLE bench_vocabulary AS
+SELECT array_agg(word ORDER BY n) AS words
+FROM (
+    SELECT n, 'term' || n || substr(md5(n::text), 1, 4) AS word
+    FROM generate_series(1, 200) AS n
+) v;
+
+INSERT INTO articles (title, content, excerpt, reading_time_minutes, author_id,
+                      publication_date, created_at, updated_at, version)
+SELECT title, content, left(content, 280), 1, author_id, ts, ts, ts, 0
+FROM (
+    SELECT
+        (SELECT string_agg(v.words[1 + floor(power(random(), 3) * 200)::int], ' ')
+         FROM generate_series(1, 6 + g % 3)) AS title,
+        (SELECT string_agg(v.words[1 + floor(power(random(), 3) * 200)::int], ' ')
+         FROM generate_series(1, 150 + g % 7)) AS content,
+        (SELECT id FROM users WHERE username = 'bench_author') AS author_id,
+        now() - (g || ' seconds')::interval AS ts
+    FROM generate_series(1, 1000000) AS g, bench_vocabulary v
+) generated;
+
+COMMIT;
+
+VACUUM ANALYZE articles;
+
+SELECT count(*) AS articles,
+       pg_size_pretty(pg_relation_size('idx_articles_search_vector')) AS gin_index_size
+FROM articles;
+
+-- 1. Baseline: the substring scan clients fall back to today.
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, title FROM articles
+WHERE title ILIKE '%term150%' OR content ILIKE '%term150%'
+ORDER BY created_at DESC
+LIMIT 20;
+
+-- 2. Rare term through the GIN index, first page (same shape as ArticleRepository.SEARCH_QUERY).
+EXPLAIN (ANALYZE, BUFFERS)
+WITH q AS (SELECT websearch_to_tsquery('english', (SELECT words[150] FROM bench_vocabulary)) AS query),
+ranked AS (SELECT a.id, ts_rank(a.search_vector, q.query) AS rank
+           FROM articles a, q WHERE a.search_vector @@ q.query
+           ORDER BY rank DESC, a.id DESC LIMIT 21 OFFSET 0)
+SELECT a.id, a.title, r.rank,
+       ts_headline('english', a.content, q.query,
+                   'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=30, MinWords=10')
+FROM ranked r JOIN articles a ON a.id = r.id, q
+ORDER BY r.rank DESC, r.id DESC;
+
+-- 3. Common term: most rows match, so ranking cost dominates.
+EXPLAIN (ANALYZE, BUFFERS)
+WITH q AS (SELECT websearch_to_tsquery('english', (SELECT words[1] FROM bench_vocabulary)) AS query),
+ranked AS (SELECT a.id, ts_rank(a.search_vector, q.query) AS rank
+           FROM articles a, q WHERE a.search_vector @@ q.query
+           ORDER BY rank DESC, a.id DESC LIMIT 21 OFFSET 0)
+SELECT a.id, a.title, r.rank
+FROM ranked r JOIN articles a ON a.id = r.id, q
+ORDER BY r.rank DESC, r.id DESC;
+
+-- 4. Two-term AND query with a deep page (offset 980, the deepest the endpoint serves).
+EXPLAIN (ANALYZE, BUFFERS)
+WITH q AS (SELECT websearch_to_tsquery('english',
+                  (SELECT words[40] || ' ' || words[120] FROM bench_vocabulary)) AS query),
+ranked AS (SELECT a.id, ts_rank(a.search_vector, q.query) AS rank
+           FROM articles a, q WHERE a.search_vector @@ q.query
+           ORDER BY rank DESC, a.id DESC LIMIT 21 OFFSET 980)
+SELECT a.id, a.title, r.rank
+FROM ranked r JOIN articles a ON a.id = r.id, q
+ORDER BY r.rank DESC, r.id DESC;
+
+-- Cleanup:
+--   DELETE FROM articles WHERE author_id = (SELECT id FROM users WHERE username = 'bench_author');